@@ -60,6 +60,87 @@ class TaskService {
     }
   }
 
+  // Fetch only the tasks changed or deleted since the last sync token.
+  // Returns {changed: [...], deleted: [ids], next: token, hasMore: bool};
+  // a 410 response means the token expired and getTasks() must be used instead.
+  Future<Map<String, dynamic>> getTaskChanges({String? since}) async {
+    final prefs = await SharedPreferences.getInstance();
+    final userId = prefs.getString('userId');
+
+    if (userId == null) {
+      throw Exception('User not logged in. Please log in again.');
+    }
+
+    final url = Uri.parse('$_baseUrl/user/$userId/changes').replace(
+      queryParameters: since == null ? null : {'since': since},
+    );
+
+    final basicAuth = await _basicAuthHeader();
+
+    final response = await httpClient.get(
+      url,
+      headers: {
+        HttpHeaders.authorizationHeader: basicAuth,
+      },
+    );
+
+    if (response.statusCode == 200) {
+      return json.decode(response.body) as Map<String, dynamic>;
+    } else {
+      throw Exception('Failed to load task changes: ${response.statusCode}');
+    }
+  }
+
+  // Listen for the user's task and comment changes pushed by the server (Server-Sent Events).
+  // Each item is {event, id, data}; event is task.saved, task.deleted, comment.saved,
+  // comment.deleted or reset (resync with getTaskChanges()). Pass the last id seen to resume.
+  Stream<Map<String, dynamic>> watchTaskEvents({String? lastEventId}) async* {
+    final prefs = await SharedPreferences.getInstance();
+    final userId = prefs.getString('userId');
+
+    if (userId == null) {
+      throw Exception('User not logged in. Please log in again.');
+    }
+
+    final client = HttpClient();
+    try {
+      final request = await client.getUrl(Uri.parse('$_baseUrl/user/$userId/events'));
+      request.headers.set(HttpHeaders.authorizationHeader, await _basicAuthHeader());
+      request.headers.set(HttpHeaders.acceptHeader, 'text/event-stream');
+      if (lastEventId != null) {
+        request.headers.set('Last-Event-ID', lastEventId);
+      }
+
+      final response = await request.close();
+      if (response.statusCode != 200) {
+        throw Exception('Failed to open task events: ${response.statusCode}');
+      }
+
+      String? event;
+      String? id;
+      final data = StringBuffer();
+      await for (final line in response.transform(utf8.decoder).transform(const LineSplitter())) {
+        if (line.isEmpty) {
+          if (event != null) {
+            yield {'event': event, 'id': id, 'data': json.decode(data.toString())};
+          }
+          event = null;
+          id = null;
+          data.clear();
+        } else if (line.startsWith('event:')) {
+          event = line.substring(6).trim();
+        } else if (line.startsWith('id:')) {
+          id = line.substring(3).trim();
+        } else if (line.startsWith('data:')) {
+          data.write(line.substring(5).trim());
+        }
+        // Lines starting with ':' are heartbeats
+      }
+    } finally {
+      client.close(force: true);
+    }
+  }
+
   // Create a new task
   Future<Task> createTask(Task task) async {
     final taskJson = json.encode(task.toJsonForCreate()); // Use toJsonForCreate()
@@ -0,0 +1,40 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Streamed responses (StreamingResponseBody, such as the NDJSON export) run on a bounded pool of
+ * their own instead of applicationTaskExecutor, so long exports to slow clients cannot starve
+ * search rebuilds and reminder loads. This configurer is unordered, so it runs after Boot's and its
+ * executor wins; the pool is not a bean because any Executor bean disables applicationTaskExecutor.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer, DisposableBean {
+
+    private final ThreadPoolTaskExecutor streamingExecutor;
+
+    public AsyncRequestConfig(@Value("${tasks.export.threads:8}") int threads,
+                              @Value("${tasks.export.queue-capacity:100}") int queueCapacity) {
+        this.streamingExecutor = new ThreadPoolTaskExecutor();
+        streamingExecutor.setCorePoolSize(threads);
+        streamingExecutor.setMaxPoolSize(threads);
+        streamingExecutor.setQueueCapacity(queueCapacity);
+        streamingExecutor.setThreadNamePrefix("streaming-");
+        streamingExecutor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        streamingExecutor.shutdown();
+    }
+}
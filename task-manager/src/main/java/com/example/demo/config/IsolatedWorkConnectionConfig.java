@@ -0,0 +1,50 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.IsolatedWorkConnectionProvider;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Gives Hibernate an {@link IsolatedWorkConnectionProvider} whose reserve is a pool of its own on the
+ * primary, with the primary's settings and metered as hikaricp.* with pool=isolated-work. The pool is
+ * not a bean because a second DataSource bean would turn off Spring Boot's DataSource configuration.
+ */
+@Configuration
+public class IsolatedWorkConnectionConfig implements DisposableBean {
+
+    private HikariDataSource reserve;
+
+    // The primary pool is the only HikariDataSource bean: Boot's DataSource, or primaryDataSource with replicas
+    @Bean
+    public HibernatePropertiesCustomizer isolatedWorkConnectionProviderCustomizer(DataSource dataSource,
+                                                                                 HikariDataSource primary,
+                                                                                 MeterRegistry meterRegistry,
+                                                                                 @Value("${datasource.isolated-work.pool-size:2}") int poolSize) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setPoolName("isolated-work");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(1);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        reserve = new HikariDataSource(config);
+        IsolatedWorkConnectionProvider provider = new IsolatedWorkConnectionProvider(dataSource, reserve);
+        return properties -> properties.put(AvailableSettings.CONNECTION_PROVIDER, provider);
+    }
+
+    @Override
+    public void destroy() {
+        if (reserve != null) {
+            reserve.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import com.example.demo.metrics.HandlerObservationConvention;
+import com.example.demo.metrics.SqlMetricsFilter;
+import com.example.demo.metrics.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    // Hibernate uses this instance rather than creating its own from a class name; ordered first so
+    // later customizers (the test query budget) can wrap it
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    // Just inside the observation filter, ahead of Spring Security
+    @Bean
+    public FilterRegistrationBean<SqlMetricsFilter> sqlMetricsFilter(SqlStatementCounter sqlStatementCounter,
+                                                                     MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlMetricsFilter(sqlStatementCounter, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new HandlerObservationConvention();
+    }
+}
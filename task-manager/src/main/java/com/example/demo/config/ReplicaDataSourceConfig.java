@@ -0,0 +1,84 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ReadYourWritesFilter;
+import com.example.demo.datasource.ReadYourWritesTracker;
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Only with datasource.replica.urls set; otherwise Spring Boot's single pooled DataSource is used
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    // The primary pool, configured from spring.datasource.* as Spring Boot would
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // The window cookie is signed with the JWT secret, which every node already shares
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${datasource.replica.read-your-writes-millis:5000}") long windowMillis,
+            @Value("${jwt.secret}") String secret) {
+        return new ReadYourWritesTracker(windowMillis, secret);
+    }
+
+    // One pool per replica with the primary's settings (size, timeouts), metered as hikaricp.* with pool=replica-N
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ReadYourWritesTracker readYourWritesTracker,
+                                                             MeterRegistry meterRegistry,
+                                                             @Value("${datasource.replica.urls}") String urls,
+                                                             @Value("${datasource.replica.username:${spring.datasource.username}}") String username,
+                                                             @Value("${datasource.replica.password:${spring.datasource.password}}") String password) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        String[] replicaUrls = StringUtils.commaDelimitedListToStringArray(urls.trim());
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls[i].trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setPoolName("replica-" + i);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesTracker);
+    }
+
+    // What JPA, Flyway and JdbcTemplate use: connections are opened on the first statement, when the
+    // routing data source can see whether the transaction is read-only
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesTracker));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider;
+import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Cluster-wide locks for @Scheduled jobs annotated with @SchedulerLock, kept in the shedlock table.
+ * Lock times come from the database clock, so nodes with skewed clocks still agree.
+ */
+@Configuration
+@EnableSchedulerLock(defaultLockAtMostFor = "PT1H")
+public class SchedulerLockConfig {
+
+    // Outside any transaction, so the routing data source sends the lock statements to the primary
+    @Bean
+    public LockProvider lockProvider(DataSource dataSource) {
+        return new JdbcTemplateLockProvider(JdbcTemplateLockProvider.Configuration.builder()
+                .withJdbcTemplate(new JdbcTemplate(dataSource))
+                .usingDbTime()
+                .build());
+    }
+}
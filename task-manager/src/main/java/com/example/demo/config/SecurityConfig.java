@@ -1,20 +1,32 @@
 package com.example.demo.config;
 
+import com.example.demo.metrics.TimedPasswordEncoder;
+import com.example.demo.security.AuthenticationCache;
+import com.example.demo.security.CachingAuthenticationProvider;
+import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.service.CustomUserDetailsService;
+import com.example.demo.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtUtil jwtUtil, MeterRegistry meterRegistry) throws Exception {
         http
                 .csrf(csrf -> csrf
-                        .ignoringRequestMatchers("/users/register", "/users/login","/users/password/{id}", "/users/username/{id}","/categories/**","/tasks/**")
+                        .ignoringRequestMatchers("/users/register", "/users/login","/users/password/{id}", "/users/username/{id}","/categories/**","/tasks/**","/comments/**")
                 )
 
                 .cors(cors -> cors
@@ -28,17 +40,34 @@ public class SecurityConfig {
                         })
                 )
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Streaming responses were authorized on the original request
                         .requestMatchers("/users/register", "/users/login").permitAll() // Allow public access for user registration and login
+                        .requestMatchers("/actuator/health").permitAll() // Liveness checks; /actuator/prometheus needs credentials
                         .requestMatchers("/categories/**").authenticated() // Protect /categories endpoints
                         .anyRequest().authenticated() // Protect all other endpoints
                 )
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Every request carries its own credentials
+                )
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, meterRegistry), BasicAuthenticationFilter.class) // Bearer tokens from /users/login
                 .httpBasic(httpBasic -> {}); // Enable Basic Authentication
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Use BCrypt for secure password hashing
+    public AuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         AuthenticationCache authenticationCache) {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(passwordEncoder);
+        daoProvider.setUserDetailsService(userDetailsService);
+        // Repeat Basic auth requests skip the user lookup and BCrypt once verified
+        return new CachingAuthenticationProvider(daoProvider, authenticationCache);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        // Use BCrypt for secure password hashing, timed as security.password.hashing
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 }
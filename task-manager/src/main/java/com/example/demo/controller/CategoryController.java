@@ -2,12 +2,14 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.CategoryDTO;
 import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/categories")
@@ -16,8 +18,12 @@ public class CategoryController {
 	@Autowired
     private final CategoryService categoryService;
 
-    public CategoryController(CategoryService categoryService) {
+	@Autowired
+    private final ResourceVersionService resourceVersionService;
+
+    public CategoryController(CategoryService categoryService, ResourceVersionService resourceVersionService) {
         this.categoryService = categoryService;
+        this.resourceVersionService = resourceVersionService;
     }
 
     // Endpoint to create a new category
@@ -30,9 +36,18 @@ public class CategoryController {
 
     // Endpoint to get all categories
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getAllCategories() {
-        List<CategoryDTO> categoryDTOs = categoryService.getAllCategories();
-        return ResponseEntity.ok(categoryDTOs);
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
+        // Body is serialized once per registry snapshot, not per request; the tag is a hash of it,
+        // so every node tags the same categories alike
+        byte[] body = categoryService.getAllCategoriesJson();
+        String etag = resourceVersionService.categoriesETag(body);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 
     // Endpoint to get a category by ID
@@ -1,13 +1,18 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.CommentDTO;
+import com.example.demo.journal.CommentWriteBehindService;
 import com.example.demo.service.CommentService;
+import com.example.demo.service.ResourceVersionService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/comments")
@@ -16,23 +21,55 @@ public class CommentController {
 	@Autowired
     private final CommentService commentService;
 
-    public CommentController(CommentService commentService) {
+	@Autowired
+    private final ResourceVersionService resourceVersionService;
+
+    // Null unless comments.write-behind.enabled
+    private final CommentWriteBehindService commentWriteBehindService;
+
+    public CommentController(CommentService commentService, ResourceVersionService resourceVersionService,
+                             ObjectProvider<CommentWriteBehindService> commentWriteBehindService) {
         this.commentService = commentService;
+        this.resourceVersionService = resourceVersionService;
+        this.commentWriteBehindService = commentWriteBehindService.getIfAvailable();
     }
 
     // Endpoint to create a new comment
     @PostMapping
-    public ResponseEntity<CommentDTO> createComment(@RequestBody CommentDTO commentDTO) {
+    public ResponseEntity<?> createComment(@RequestBody CommentDTO commentDTO) {
+        if (commentWriteBehindService != null) {
+            // Write-behind mode: 202 once journaled; the comment is stored (and gets its id) shortly after
+            try {
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(commentWriteBehindService.append(commentDTO));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+        }
         // Service layer handles the mapping internally
         CommentDTO createdComment = commentService.saveComment(commentDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdComment);
     }
 
+    // Endpoint to create many comments at once (e.g. importing a comment history)
+    @PostMapping("/batch")
+    public ResponseEntity<?> createComments(@RequestBody List<CommentDTO> commentDTOs) {
+        try {
+            List<CommentDTO> createdComments = commentService.saveComments(commentDTOs);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdComments);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Endpoint to get all comments for a specific task
     @GetMapping("/task/{taskId}")
-    public ResponseEntity<List<CommentDTO>> getCommentsByTaskId(@PathVariable Long taskId) {
-        List<CommentDTO> comments = commentService.getCommentsByTaskId(taskId);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<List<CommentDTO>> getCommentsByTaskId(@PathVariable Long taskId, WebRequest request) {
+        ResourceVersionService.Tagged<List<CommentDTO>> comments = resourceVersionService.readTaskComments(
+                taskId, request::checkNotModified, () -> commentService.getCommentsByTaskId(taskId));
+        if (comments.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(comments.getETag()).build();
+        }
+        return ResponseEntity.ok().eTag(comments.getETag()).body(comments.getBody());
     }
 
     // Endpoint to update an existing comment
@@ -1,17 +1,29 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.TaskChangesDTO;
 import com.example.demo.dto.TaskDTO;
+import com.example.demo.dto.TaskPageDTO;
+import com.example.demo.dto.TaskStatsDTO;
 import com.example.demo.entity.Task;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.service.ChangeStreamService;
+import com.example.demo.service.ResourceVersionService;
 import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskStatisticsService;
+import com.example.demo.service.TaskSyncService;
 import com.example.demo.enums.TaskPriority;
 import com.example.demo.enums.TaskStatus;
 import com.example.demo.mapper.TaskMapper;
+import com.example.demo.search.TaskSearchService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -24,8 +36,30 @@ public class TaskController {
     @Autowired
     private final TaskService taskService;
 
-    public TaskController(TaskService taskService) {
+    @Autowired
+    private final TaskStatisticsService taskStatisticsService;
+
+    @Autowired
+    private final TaskSyncService taskSyncService;
+
+    @Autowired
+    private final ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private final TaskSearchService taskSearchService;
+
+    @Autowired
+    private final ChangeStreamService changeStreamService;
+
+    public TaskController(TaskService taskService, TaskStatisticsService taskStatisticsService,
+                          TaskSyncService taskSyncService, ResourceVersionService resourceVersionService,
+                          TaskSearchService taskSearchService, ChangeStreamService changeStreamService) {
         this.taskService = taskService;
+        this.taskStatisticsService = taskStatisticsService;
+        this.taskSyncService = taskSyncService;
+        this.resourceVersionService = resourceVersionService;
+        this.taskSearchService = taskSearchService;
+        this.changeStreamService = changeStreamService;
     }
 
     // old Endpoint to create or update a task
@@ -46,12 +80,33 @@ public class TaskController {
 
 
 
+    // Endpoint to create or update a list of tasks in one request
+    @PostMapping("/batch")
+    public ResponseEntity<?> saveTasks(@RequestBody List<TaskDTO> taskDTOs) {
+        try {
+            List<Task> savedTasks = taskService.saveTasks(TaskMapper.toEntityList(taskDTOs));
+            return ResponseEntity.ok(TaskMapper.toDTOList(savedTasks));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // Endpoint to get all tasks
     @GetMapping
     public List<TaskDTO> getAllTasks() {
         return taskService.getAllTasks();
     }
 
+    // Endpoint to get all tasks one page at a time (?after=<cursor>&limit=)
+    @GetMapping(params = "limit")
+    public ResponseEntity<TaskPageDTO> getAllTasksPage(@RequestParam(required = false) String after, @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksPage(after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Invalid cursor or limit
+        }
+    }
+
     // Endpoint to get tasks by status
     @GetMapping("/status/{status}")
     public ResponseEntity<List<TaskDTO>> getTasksByStatus(@PathVariable String status) {
@@ -64,6 +119,19 @@ public class TaskController {
         }
     }
 
+    // Endpoint to get tasks by status one page at a time
+    @GetMapping(value = "/status/{status}", params = "limit")
+    public ResponseEntity<TaskPageDTO> getTasksByStatusPage(@PathVariable String status,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam int limit) {
+        try {
+            TaskStatus taskStatus = TaskStatus.valueOf(status.toUpperCase());
+            return ResponseEntity.ok(taskService.getTasksByStatusPage(taskStatus, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Invalid status, cursor or limit
+        }
+    }
+
     // Endpoint to get tasks by priority
     @GetMapping("/priority/{priority}")
     public ResponseEntity<List<TaskDTO>> getTasksByPriority(@PathVariable String priority) {
@@ -76,6 +144,31 @@ public class TaskController {
         }
     }
 
+    // Endpoint to get tasks by priority one page at a time
+    @GetMapping(value = "/priority/{priority}", params = "limit")
+    public ResponseEntity<TaskPageDTO> getTasksByPriorityPage(@PathVariable String priority,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam int limit) {
+        try {
+            TaskPriority taskPriority = TaskPriority.valueOf(priority.toUpperCase());
+            return ResponseEntity.ok(taskService.getTasksByPriorityPage(taskPriority, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Invalid priority, cursor or limit
+        }
+    }
+
+    // Endpoint to search a user's tasks and their comments (?q=&userId=&limit=)
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskDTO>> searchTasks(@RequestParam("q") String query,
+                                                     @RequestParam Long userId,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(taskSearchService.search(userId, query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Empty query
+        }
+    }
+
     // Endpoint to get a task by ID
     @GetMapping("/{id}")
     public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
@@ -111,18 +204,69 @@ public class TaskController {
     // adding put status endpoint
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TaskDTO>> getTasksByUserId(@PathVariable Long userId) {
+    public ResponseEntity<List<TaskDTO>> getTasksByUserId(@PathVariable Long userId, WebRequest request) {
         try {
-            List<TaskDTO> tasks = taskService.getTasksByUserId(userId);
-            if (tasks.isEmpty()) {
+            // Answer 304 from the user's task list version alone, before loading or serializing the tasks
+            ResourceVersionService.Tagged<List<TaskDTO>> tasks = resourceVersionService.readUserTasks(
+                    userId, request::checkNotModified, () -> taskService.getTasksByUserId(userId));
+            if (tasks.isNotModified()) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tasks.getETag()).build();
+            }
+            if (tasks.getBody().isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
             }
-            return ResponseEntity.ok(tasks);
+            return ResponseEntity.ok().eTag(tasks.getETag()).body(tasks.getBody());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(null); // Handle exceptions gracefully
         }
     }
 
+    // Endpoint to get a user's task counts by status and priority
+    @GetMapping("/user/{userId}/stats")
+    public ResponseEntity<TaskStatsDTO> getTaskStatsByUserId(@PathVariable Long userId) {
+        return ResponseEntity.ok(taskStatisticsService.getStats(userId));
+    }
+
+    // Endpoint to get a user's task changes and deletions since a sync token (410 when the token is too old)
+    @GetMapping("/user/{userId}/changes")
+    public ResponseEntity<TaskChangesDTO> getTaskChanges(@PathVariable Long userId,
+                                                         @RequestParam(required = false) String since,
+                                                         @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(taskSyncService.getChanges(userId, since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Invalid token or limit
+        }
+    }
+
+    // Endpoint to export all of a user's tasks as newline-delimited JSON
+    @GetMapping(value = "/user/{userId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasksByUserId(@PathVariable Long userId) {
+        StreamingResponseBody body = out -> taskService.exportTasksByUserId(userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Endpoint to stream a user's task and comment changes as Server-Sent Events (resumes after Last-Event-ID)
+    @GetMapping(value = "/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(@PathVariable Long userId,
+                                       @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeStreamService.subscribe(userId, lastEventId);
+    }
+
+    // Endpoint to get a user's tasks one page at a time
+    @GetMapping(value = "/user/{userId}", params = "limit")
+    public ResponseEntity<TaskPageDTO> getTasksByUserIdPage(@PathVariable Long userId,
+                                                            @RequestParam(required = false) String after,
+                                                            @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(taskService.getTasksByUserIdPage(userId, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Invalid cursor or limit
+        }
+    }
+
 }
 
@@ -3,6 +3,7 @@ package com.example.demo.controller;
 import com.example.demo.dto.UserDTO;
 import com.example.demo.entity.User;
 import com.example.demo.service.UserService;
+import com.example.demo.util.JwtUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,8 +20,12 @@ public class UserController {
     @Autowired
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    @Autowired
+    private final JwtUtil jwtUtil;
+
+    public UserController(UserService userService, JwtUtil jwtUtil) {
         this.userService = userService;
+        this.jwtUtil = jwtUtil;
     }
 
     // Register endpoint
@@ -60,16 +65,14 @@ public class UserController {
     }
     // Login endpoint
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody UserDTO userDTO, @RequestHeader Map<String, String> headers) {
-        headers.forEach((key, value) -> System.out.println(key + ": " + value));
-        System.out.println("Username: " + userDTO.getUsername());
-        System.out.println("Password: " + userDTO.getPassword());
-
-        Optional<Long> userId = userService.authenticateUser(userDTO.getUsername(), userDTO.getPassword());
-        if (userId.isPresent()) {
+    public ResponseEntity<Map<String, Object>> login(@RequestBody UserDTO userDTO) {
+        Optional<User> user = userService.authenticateUser(userDTO.getUsername(), userDTO.getPassword());
+        if (user.isPresent()) {
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Login successful");
-            response.put("userId", userId.get());
+            response.put("userId", user.get().getId());
+            // Subject is the stored username, not the one typed, which may differ in case
+            response.put("token", jwtUtil.generateToken(user.get().getUsername())); // Send as "Authorization: Bearer <token>"
             return ResponseEntity.ok(response);
         }
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid credentials"));
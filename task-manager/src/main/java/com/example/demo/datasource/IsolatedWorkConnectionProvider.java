@@ -0,0 +1,77 @@
+package com.example.demo.datasource;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hibernate's connection provider, with a small reserve pool for a connection asked for by a thread
+ * that already holds one. Hibernate does that for isolated work: the pooled id generators refill
+ * their block from task_seq/comment_seq in a transaction of their own, while holding a lock that
+ * every other insert waits on. Taken from the main pool, that connection can only be freed by a
+ * thread waiting on the lock, so once every connection belongs to an inserting request the pool
+ * deadlocks until connection-timeout. Only these nested connections come from the reserve.
+ */
+public class IsolatedWorkConnectionProvider implements ConnectionProvider {
+
+    private final DataSource dataSource;
+    private final DataSource reserve;
+
+    // Main pool connections per thread; the counter travels with the connection in case another thread closes it
+    private final ThreadLocal<AtomicInteger> held = ThreadLocal.withInitial(AtomicInteger::new);
+    private final Map<Connection, AtomicInteger> holders = new ConcurrentHashMap<>();
+
+    public IsolatedWorkConnectionProvider(DataSource dataSource, DataSource reserve) {
+        this.dataSource = dataSource;
+        this.reserve = reserve;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger count = held.get();
+        if (count.get() > 0) {
+            return reserve.getConnection();
+        }
+        Connection connection = dataSource.getConnection();
+        count.incrementAndGet();
+        holders.put(connection, count);
+        return connection;
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        AtomicInteger count = holders.remove(connection);
+        if (count != null) {
+            count.decrementAndGet();
+        }
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> type) {
+        return type.isInstance(this) || DataSource.class.isAssignableFrom(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> type) {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        if (DataSource.class.isAssignableFrom(type)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(type);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Marks the caller of every mutating request (anything but GET, HEAD and OPTIONS) as having
+ * written, so their reads stay on the primary for the read-your-writes window. The request itself
+ * reads from the primary throughout, which keeps read-modify-write updates off lagging replicas.
+ * <p>
+ * The window is also sent back as a signed cookie, and reads that present a valid one for the
+ * same user go to the primary on whichever node they reach. Runs after Spring Security so the
+ * user is known.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "rw_primary_until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = ReadYourWritesTracker.currentUsername();
+        if (SAFE_METHODS.contains(request.getMethod())) {
+            if (username != null && hasWindowCookie(request, username)) {
+                try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+                    filterChain.doFilter(request, response);
+                }
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+        recordWrite(username, response);
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Restart the window now that the write has committed; a large response may already have
+            // reached the client, which the first call covers
+            recordWrite(username, response);
+        }
+    }
+
+    private void recordWrite(String username, HttpServletResponse response) {
+        if (username == null) {
+            return;
+        }
+        readYourWritesTracker.recordWrite(username);
+        if (!response.isCommitted()) {
+            // A second Set-Cookie with the same name replaces the first one in the client
+            Cookie cookie = new Cookie(COOKIE, readYourWritesTracker.issueToken(username));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.ceil(readYourWritesTracker.getWindowMillis() / 1000.0));
+            cookie.setAttribute("SameSite", "Lax");
+            response.addCookie(cookie);
+        }
+    }
+
+    private boolean hasWindowCookie(HttpServletRequest request, String username) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName()) && readYourWritesTracker.isWithinWindow(username, cookie.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
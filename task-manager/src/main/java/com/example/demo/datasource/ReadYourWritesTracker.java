@@ -0,0 +1,116 @@
+package com.example.demo.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently. For the window after a user's last write their reads are
+ * served by the primary, so they see their own changes even when the replicas lag behind.
+ * <p>
+ * The map below only covers reads that reach the node which took the write. For the other nodes
+ * the window also travels with the client, as a token naming the user and the end of the window,
+ * signed with a key every node shares ({@link ReadYourWritesFilter} sends it as a cookie). Clients
+ * that drop cookies only get the window on the node that took the write, unless the load balancer
+ * routes them back to it. Nodes compare the token's end time with their own clock, so clock skew
+ * between nodes shortens or stretches the window by the same amount.
+ */
+public class ReadYourWritesTracker {
+
+    private static final String HMAC = "HmacSHA256";
+
+    // Username -> time until which that user's reads stay on the primary
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+    private final long windowMillis;
+    private final SecretKeySpec signingKey;
+    private final ThreadLocal<Mac> macs;
+
+    public ReadYourWritesTracker(long windowMillis, String secret) {
+        this.windowMillis = windowMillis;
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC);
+                mac.init(signingKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(HMAC + " is not available", e);
+            }
+        });
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void recordWrite(String username) {
+        primaryUntil.put(username, System.currentTimeMillis() + windowMillis);
+    }
+
+    public boolean isWithinWindow(String username) {
+        Long until = primaryUntil.get(username);
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public boolean isCurrentUserWithinWindow() {
+        String username = currentUsername();
+        return username != null && isWithinWindow(username);
+    }
+
+    // "<end of window in epoch millis>.<signature>"; the username is signed but not included, as
+    // the reading request is authenticated anyway
+    public String issueToken(String username) {
+        long until = System.currentTimeMillis() + windowMillis;
+        return until + "." + sign(username, until);
+    }
+
+    // Whether the token was issued by a node for this user and its window is still open
+    public boolean isWithinWindow(String username, String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return false;
+        }
+        long until;
+        try {
+            until = Long.parseLong(token.substring(0, dot));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            return false;
+        }
+        byte[] expected = sign(username, until).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, token.substring(dot + 1).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Drop expired windows so users who wrote once and left do not accumulate
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        primaryUntil.values().removeIf(until -> until <= now);
+    }
+
+    private String sign(String username, long until) {
+        byte[] signature = macs.get().doFinal((username + "|" + until).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions (@Transactional(readOnly = true), and Spring Data
+ * repository reads outside a service transaction) to the replicas in turn, and everything else to
+ * the primary. Reads go to the primary too while the current user is inside their read-your-writes
+ * window, or inside {@link #usePrimary()}.
+ * <p>
+ * The key is decided when a connection is opened, so this must sit behind a
+ * LazyConnectionDataSourceProxy: the transaction manager opens its connection before the
+ * transaction is marked read-only, the proxy defers that to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = ThreadLocal.withInitial(() -> false);
+
+    private final List<HikariDataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    // Reads on this thread go to the primary until the scope is closed, e.g. reloading a cache right
+    // after a commit that the replicas may not have applied yet
+    public static PrimaryScope usePrimary() {
+        boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(true);
+        return () -> PRIMARY_REQUIRED.set(previous);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || PRIMARY_REQUIRED.get()
+                || readYourWritesTracker.isCurrentUserWithinWindow()) {
+            return PRIMARY;
+        }
+        return Math.floorMod(next.getAndIncrement(), replicas.size());
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    @FunctionalInterface
+    public interface PrimaryScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Payload of one pushed change; the event name says what happened, absent fields are omitted
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDTO {
+
+    private Long taskId;
+    private Long commentId;
+    private TaskDTO task;
+    private CommentDTO comment;
+    private ReminderDTO reminder;
+
+    // Default constructor
+    public ChangeEventDTO() {
+    }
+
+    // All-arguments constructor
+    public ChangeEventDTO(Long taskId, Long commentId, TaskDTO task, CommentDTO comment) {
+        this.taskId = taskId;
+        this.commentId = commentId;
+        this.task = task;
+        this.comment = comment;
+    }
+
+    // Getters and setters
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Long getCommentId() {
+        return commentId;
+    }
+
+    public void setCommentId(Long commentId) {
+        this.commentId = commentId;
+    }
+
+    // State after the write, only on task.saved
+    public TaskDTO getTask() {
+        return task;
+    }
+
+    public void setTask(TaskDTO task) {
+        this.task = task;
+    }
+
+    // State after the write, only on comment.saved
+    public CommentDTO getComment() {
+        return comment;
+    }
+
+    public void setComment(CommentDTO comment) {
+        this.comment = comment;
+    }
+
+    // Only on task.reminder
+    public ReminderDTO getReminder() {
+        return reminder;
+    }
+
+    public void setReminder(ReminderDTO reminder) {
+        this.reminder = reminder;
+    }
+}
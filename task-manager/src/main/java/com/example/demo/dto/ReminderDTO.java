@@ -0,0 +1,47 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+// Payload of a task.reminder event: which task is coming due and how far ahead
+public class ReminderDTO {
+
+    private String title;
+    private LocalDateTime dueDate;
+    private long minutesBefore;
+
+    // Default constructor
+    public ReminderDTO() {
+    }
+
+    // All-arguments constructor
+    public ReminderDTO(String title, LocalDateTime dueDate, long minutesBefore) {
+        this.title = title;
+        this.dueDate = dueDate;
+        this.minutesBefore = minutesBefore;
+    }
+
+    // Getters and setters
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public long getMinutesBefore() {
+        return minutesBefore;
+    }
+
+    public void setMinutesBefore(long minutesBefore) {
+        this.minutesBefore = minutesBefore;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class TaskChangesDTO {
+
+    private List<TaskDTO> changed;
+    private List<Long> deleted;
+    private String next;
+    private boolean hasMore;
+
+    // Default constructor
+    public TaskChangesDTO() {
+    }
+
+    // All-arguments constructor
+    public TaskChangesDTO(List<TaskDTO> changed, List<Long> deleted, String next, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.next = next;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and setters
+    public List<TaskDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<TaskDTO> changed) {
+        this.changed = changed;
+    }
+
+    // Ids of tasks deleted or moved to another owner since the token; apply these before changed,
+    // since a task that left and came back appears in both
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    // Token to pass as ?since= on the next sync
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    // True when the limit cut the result short and the client should ask again straight away
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+public class TaskPageDTO {
+
+    private List<TaskDTO> items;
+    private String next;
+
+    // Default constructor
+    public TaskPageDTO() {
+    }
+
+    // All-arguments constructor
+    public TaskPageDTO(List<TaskDTO> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Getters and setters
+    public List<TaskDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TaskDTO> items) {
+        this.items = items;
+    }
+
+    // Cursor for the following page, null when this is the last page
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.dto;
+
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+
+import java.util.Map;
+
+public class TaskStatsDTO {
+
+    private Long userId;
+    private long total;
+    private Map<TaskStatus, Long> byStatus;
+    private Map<TaskPriority, Long> byPriority;
+
+    // Default constructor
+    public TaskStatsDTO() {
+    }
+
+    // All-arguments constructor
+    public TaskStatsDTO(Long userId, long total, Map<TaskStatus, Long> byStatus, Map<TaskPriority, Long> byPriority) {
+        this.userId = userId;
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byPriority = byPriority;
+    }
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<TaskStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<TaskStatus, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<TaskPriority, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public void setByPriority(Map<TaskPriority, Long> byPriority) {
+        this.byPriority = byPriority;
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.demo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 public class Category {
 
     @Id
@@ -20,7 +24,8 @@ public class Category {
     private String icon;
     private LocalDateTime createdAt;
 
-    @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
+    // No cascade: CategoryService removes the tasks through TaskService, which keeps counters and tombstones
+    @OneToMany(mappedBy = "category")
     private List<Task> tasks = new ArrayList<>();
 
     // Default constructor
@@ -7,8 +7,10 @@ import java.time.LocalDateTime;
 @Table(name = "comments")
 public class Comment {
 
+    // Pooled ids (a sequence table on MySQL) so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = 50)
     private Long id;
 
     @Column(columnDefinition = "TEXT", nullable = false)
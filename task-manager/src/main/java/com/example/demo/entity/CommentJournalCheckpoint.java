@@ -0,0 +1,43 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+// Last write-behind journal record of a node that is stored in the comments table; see CommentWriteBehindService
+@Entity
+@Table(name = "comment_journal_checkpoints")
+public class CommentJournalCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String journal;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    // Default constructor
+    public CommentJournalCheckpoint() {
+    }
+
+    // All-arguments constructor
+    public CommentJournalCheckpoint(String journal, long lastSequence) {
+        this.journal = journal;
+        this.lastSequence = lastSequence;
+    }
+
+    // Getters and setters
+    public String getJournal() {
+        return journal;
+    }
+
+    public void setJournal(String journal) {
+        this.journal = journal;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
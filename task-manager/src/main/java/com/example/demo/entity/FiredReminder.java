@@ -0,0 +1,81 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// A reminder one node has sent, so the others do not send it again; see ReminderService
+@Entity
+@Table(name = "fired_reminders")
+public class FiredReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDateTime dueDate;
+
+    @Column(name = "offset_seconds", nullable = false)
+    private long offsetSeconds;
+
+    @Column(name = "fired_at", nullable = false)
+    private LocalDateTime firedAt;
+
+    // Default constructor
+    public FiredReminder() {
+    }
+
+    // All-arguments constructor
+    public FiredReminder(Long id, Long taskId, LocalDateTime dueDate, long offsetSeconds, LocalDateTime firedAt) {
+        this.id = id;
+        this.taskId = taskId;
+        this.dueDate = dueDate;
+        this.offsetSeconds = offsetSeconds;
+        this.firedAt = firedAt;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(LocalDateTime dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public long getOffsetSeconds() {
+        return offsetSeconds;
+    }
+
+    public void setOffsetSeconds(long offsetSeconds) {
+        this.offsetSeconds = offsetSeconds;
+    }
+
+    public LocalDateTime getFiredAt() {
+        return firedAt;
+    }
+
+    public void setFiredAt(LocalDateTime firedAt) {
+        this.firedAt = firedAt;
+    }
+}
@@ -5,16 +5,22 @@ import com.example.demo.enums.TaskStatus;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = @Index(name = "idx_tasks_user_change", columnList = "user_id, change_version, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tasks")
 public class Task {
+    // Pooled ids (a sequence table on MySQL) so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @NotNull 
@@ -34,6 +40,10 @@ public class Task {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Owner's task list version when this row was last written; set by TaskService, read by delta sync
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
     @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -208,6 +218,14 @@ public class Task {
         this.updatedAt = updatedAt;
     }
 
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+
     public User getUser() {
         return user;
     }
@@ -0,0 +1,43 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+// Version of a task's comment list, incremented by every transaction that changes it; see ResourceVersionService
+@Entity
+@Table(name = "task_comment_versions")
+public class TaskCommentVersion {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Default constructor
+    public TaskCommentVersion() {
+    }
+
+    // All-arguments constructor
+    public TaskCommentVersion(Long taskId, long version) {
+        this.taskId = taskId;
+        this.version = version;
+    }
+
+    // Getters and setters
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
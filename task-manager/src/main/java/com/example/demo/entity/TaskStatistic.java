@@ -0,0 +1,85 @@
+package com.example.demo.entity;
+
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+
+import jakarta.persistence.*;
+
+// Running count of a user's tasks per (status, priority); maintained by TaskStatisticsService
+@Entity
+@Table(name = "task_statistics",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_statistics_key", columnNames = {"user_id", "status", "priority"}))
+public class TaskStatistic {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskPriority priority;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    // Default constructor
+    public TaskStatistic() {
+    }
+
+    // All-arguments constructor
+    public TaskStatistic(Long id, Long userId, TaskStatus status, TaskPriority priority, long taskCount) {
+        this.id = id;
+        this.userId = userId;
+        this.status = status;
+        this.priority = priority;
+        this.taskCount = taskCount;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public long getTaskCount() {
+        return taskCount;
+    }
+
+    public void setTaskCount(long taskCount) {
+        this.taskCount = taskCount;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Record of a deleted task, kept so syncing clients can drop their local copy
+@Entity
+@Table(name = "task_tombstones", indexes = @Index(name = "idx_task_tombstones_user_change", columnList = "user_id, change_version, id"))
+public class TaskTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    // The user's task list version of the deleting transaction
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    // Default constructor
+    public TaskTombstone() {
+    }
+
+    // All-arguments constructor
+    public TaskTombstone(Long id, Long taskId, Long userId, LocalDateTime deletedAt, long changeVersion) {
+        this.id = id;
+        this.taskId = taskId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+        this.changeVersion = changeVersion;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+
+    // Lifecycle hook
+    @PrePersist
+    protected void onCreate() {
+        if (deletedAt == null) {
+            deletedAt = LocalDateTime.now();
+        }
+    }
+}
@@ -1,17 +1,26 @@
     package com.example.demo.entity;
 
     import jakarta.persistence.*;
+    import org.hibernate.annotations.Cache;
+    import org.hibernate.annotations.CacheConcurrencyStrategy;
+    import org.hibernate.annotations.NaturalId;
+    import org.hibernate.annotations.NaturalIdCache;
     import java.time.LocalDateTime;
     import java.util.ArrayList;
     import java.util.List;
 
     @Entity
     @Table(name = "users")
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+    @NaturalIdCache(region = "user-natural-ids")
     public class User {
         @Id
         @GeneratedValue(strategy = GenerationType.IDENTITY)
         private Long id;
 
+        // Looked up on every authenticated request; resolved through the natural-id cache
+        @NaturalId(mutable = true)
         @Column(unique = true, nullable = false)
         private String username;
 
@@ -27,7 +36,8 @@
         @Column(nullable = false)
         private LocalDateTime createdAt;
 
-        @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+        // No cascade: UserService removes the tasks through TaskService, which keeps counters and tombstones
+        @OneToMany(mappedBy = "user")
         private List<Task> tasks = new ArrayList<>();
 
         @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
@@ -0,0 +1,43 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+// Version of a user's task list, incremented by every transaction that changes it; see TaskSyncService
+@Entity
+@Table(name = "user_task_versions")
+public class UserTaskVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // Default constructor
+    public UserTaskVersion() {
+    }
+
+    // All-arguments constructor
+    public UserTaskVersion(Long userId, long version) {
+        this.userId = userId;
+        this.version = version;
+    }
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.event;
+
+// Published by CategoryService for every category write
+public class CategoryChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Type type, Long categoryId) {
+        this.type = type;
+        this.categoryId = categoryId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
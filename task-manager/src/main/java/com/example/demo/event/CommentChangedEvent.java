@@ -0,0 +1,56 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.CommentDTO;
+
+// Published by CommentService for every comment write; listeners react after the transaction commits
+public class CommentChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long commentId;
+    private final Long taskId;
+    private final Long taskOwnerId;
+    private final CommentDTO comment;
+
+    public CommentChangedEvent(Type type, Long commentId, Long taskId, Long taskOwnerId, CommentDTO comment) {
+        this.type = type;
+        this.commentId = commentId;
+        this.taskId = taskId;
+        this.taskOwnerId = taskOwnerId;
+        this.comment = comment;
+    }
+
+    public static CommentChangedEvent saved(CommentDTO comment, Long taskOwnerId) {
+        return new CommentChangedEvent(Type.SAVED, comment.getId(), comment.getTaskId(), taskOwnerId, comment);
+    }
+
+    public static CommentChangedEvent deleted(Long commentId, Long taskId, Long taskOwnerId) {
+        return new CommentChangedEvent(Type.DELETED, commentId, taskId, taskOwnerId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getCommentId() {
+        return commentId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    // User owning the commented task, who may differ from the comment's author
+    public Long getTaskOwnerId() {
+        return taskOwnerId;
+    }
+
+    // State after the write, null for deletions
+    public CommentDTO getComment() {
+        return comment;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.TaskDTO;
+
+// Published by TaskService for every task write; listeners react after the transaction commits
+public class TaskChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long taskId;
+    private final Long userId;
+    private final Long previousUserId;
+    private final TaskDTO task;
+
+    public TaskChangedEvent(Type type, Long taskId, Long userId, Long previousUserId, TaskDTO task) {
+        this.type = type;
+        this.taskId = taskId;
+        this.userId = userId;
+        this.previousUserId = previousUserId;
+        this.task = task;
+    }
+
+    public static TaskChangedEvent saved(TaskDTO task, Long previousUserId) {
+        return new TaskChangedEvent(Type.SAVED, task.getId(), task.getUserId(), previousUserId, task);
+    }
+
+    public static TaskChangedEvent deleted(Long taskId, Long userId) {
+        return new TaskChangedEvent(Type.DELETED, taskId, userId, userId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    // Owner before the write (null for new tasks); differs from userId when a task changed hands
+    public Long getPreviousUserId() {
+        return previousUserId;
+    }
+
+    // State after the write, null for deletions
+    public TaskDTO getTask() {
+        return task;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.event;
+
+// Published by UserService; the user's tasks and comments are removed by cascade
+public class UserDeletedEvent {
+
+    private final Long userId;
+
+    public UserDeletedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
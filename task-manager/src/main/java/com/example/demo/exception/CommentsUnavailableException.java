@@ -0,0 +1,12 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The write-behind comment queue is full or shutting down; the client should retry later
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class CommentsUnavailableException extends RuntimeException {
+    public CommentsUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The sync token predates tombstone retention; the client must do a full resync
+@ResponseStatus(value = HttpStatus.GONE)
+public class SyncTokenExpiredException extends RuntimeException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
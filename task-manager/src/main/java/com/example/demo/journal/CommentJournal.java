@@ -0,0 +1,216 @@
+package com.example.demo.journal;
+
+import com.example.demo.dto.CommentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file log of comments accepted in write-behind mode, split into segment files named
+ * after the sequence number of their first record. A record is its payload length, a CRC32 of
+ * sequence and payload, the sequence and the comment as JSON. Reading a segment stops at the first
+ * short or corrupt record, which is what a crash in the middle of a write leaves behind.
+ * Not thread-safe: after {@link #open} only the write-behind writer thread uses it.
+ */
+public class CommentJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentJournal.class);
+
+    private static final String PREFIX = "comments-";
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_BYTES = 16;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    public record Entry(long sequence, CommentDTO comment) {
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ObjectMapper objectMapper;
+
+    // First sequence -> segment file, oldest first; the last one is current once something is appended
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final List<Entry> recovered = new ArrayList<>();
+    private FileChannel current;
+    private long nextSequence;
+
+    private CommentJournal(Path directory, long segmentBytes, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+    }
+
+    // Opens the journal in the directory; records after the checkpoint are kept for recovered()
+    public static CommentJournal open(Path directory, long segmentBytes, ObjectMapper objectMapper,
+                                      long checkpoint) throws IOException {
+        CommentJournal journal = new CommentJournal(directory, segmentBytes, objectMapper);
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(CommentJournal::isSegment)
+                    .forEach(file -> journal.segments.put(firstSequence(file), file));
+        }
+        long lastSequence = checkpoint;
+        for (Path segment : journal.segments.values()) {
+            for (Entry entry : journal.read(segment)) {
+                lastSequence = Math.max(lastSequence, entry.sequence());
+                if (entry.sequence() > checkpoint) {
+                    journal.recovered.add(entry);
+                }
+            }
+        }
+        journal.nextSequence = lastSequence + 1;
+        return journal;
+    }
+
+    // Records written before the last shutdown or crash and not yet stored, in sequence order
+    public List<Entry> recovered() {
+        return recovered;
+    }
+
+    // Writes the comments as one group and forces them to disk before returning
+    public List<Entry> append(List<CommentDTO> comments) throws IOException {
+        List<Entry> entries = new ArrayList<>(comments.size());
+        List<byte[]> payloads = new ArrayList<>(comments.size());
+        int bytes = 0;
+        for (CommentDTO comment : comments) {
+            byte[] payload = objectMapper.writeValueAsBytes(comment);
+            if (payload.length > MAX_PAYLOAD_BYTES) {
+                throw new IllegalArgumentException("Comment is too large for the journal");
+            }
+            payloads.add(payload);
+            bytes += HEADER_BYTES + payload.length;
+        }
+
+        if (current == null || current.size() >= segmentBytes) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        long sequence = nextSequence;
+        for (int i = 0; i < payloads.size(); i++, sequence++) {
+            byte[] payload = payloads.get(i);
+            buffer.putInt(payload.length).putInt(checksum(sequence, payload)).putLong(sequence).put(payload);
+            entries.add(new Entry(sequence, comments.get(i)));
+        }
+        buffer.flip();
+
+        long start = current.size();
+        try {
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            current.force(false);
+        } catch (IOException e) {
+            // Cut off the partial group so later groups are not written behind a torn record
+            try {
+                current.truncate(start);
+            } catch (IOException truncateFailed) {
+                e.addSuppressed(truncateFailed);
+                current.close();
+                current = null;
+            }
+            throw e;
+        }
+        nextSequence = sequence;
+        return entries;
+    }
+
+    // Deletes the full segments whose records are all at or below the sequence
+    public void deleteThrough(long sequence) throws IOException {
+        Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Path> segment = iterator.next();
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next - 1 > sequence) {
+                return;
+            }
+            Files.deleteIfExists(segment.getValue());
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    // Start a new segment; after a restart, appends never go to a file that may end in a torn record
+    private void roll() throws IOException {
+        close();
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, nextSequence, SUFFIX));
+        // A file already named after the next sequence holds no readable record, only a torn one
+        Files.deleteIfExists(file);
+        current = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segments.put(nextSequence, file);
+        // Make the new directory entry durable too; not every platform can open a directory
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Could not sync journal directory {}", directory, e);
+        }
+    }
+
+    private List<Entry> read(Path segment) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (InputStream file = Files.newInputStream(segment);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                long sequence = in.readLong();
+                if (length <= 0 || length > MAX_PAYLOAD_BYTES) {
+                    log.warn("Corrupt record in comment journal {} after {} records; ignoring the rest", segment, entries.size());
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (checksum(sequence, payload) != checksum) {
+                    log.warn("Corrupt record in comment journal {} after {} records; ignoring the rest", segment, entries.size());
+                    break;
+                }
+                entries.add(new Entry(sequence, objectMapper.readValue(payload, CommentDTO.class)));
+            }
+        } catch (EOFException e) {
+            // End of segment, or a record torn by a crash while it was written
+        }
+        return entries;
+    }
+
+    private static int checksum(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(sequence).array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.demo.journal;
+
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.entity.CommentJournalCheckpoint;
+import com.example.demo.exception.CommentsUnavailableException;
+import com.example.demo.repository.CommentJournalCheckpointRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.CommentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind comment creation, enabled with comments.write-behind.enabled. A comment is
+ * acknowledged once it is forced to the local {@link CommentJournal}; a writer thread appends
+ * whatever is queued as one group with a single fsync. A flusher thread then stores journaled
+ * comments through {@link CommentService#saveComments} in batches and advances the journal's
+ * checkpoint row in the same transaction. At startup, records past the checkpoint are replayed
+ * before requests are served, so an acknowledged comment survives a crash and is stored once.
+ *
+ * Both queues are bounded: when the database falls behind, the flusher's queue fills, the writer
+ * waits, the append queue fills and new comments get 503 instead of piling up in memory. Accepted
+ * comments have no id and do not show up in reads until they are flushed.
+ */
+@Service
+@ConditionalOnProperty(name = "comments.write-behind.enabled", havingValue = "true")
+public class CommentWriteBehindService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentWriteBehindService.class);
+
+    private static final long POLL_MILLIS = 100;
+    private static final long RETRY_MILLIS = 1000;
+    // Comment content is a TEXT column
+    private static final int MAX_CONTENT_LENGTH = 65535;
+    // Written into the journal directory when no journal-name is configured
+    private static final String JOURNAL_ID_FILE = "journal.id";
+
+    private final CommentService commentService;
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final CommentJournalCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String configuredJournalName;
+    private final Path directory;
+    private final long segmentBytes;
+    private final int batchSize;
+    private final long appendTimeoutMillis;
+
+    private final BlockingQueue<PendingAppend> appends;
+    private final BlockingQueue<CommentJournal.Entry> unflushed;
+    // Appenders check running and enqueue under the read lock, so nothing is queued after stop()
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    // Highest sequence stored in the database; the writer deletes journal segments up to it
+    private volatile long checkpointed;
+    // Set when the flusher exits, so the writer stops waiting for room in its queue
+    private volatile boolean flusherStopped;
+    private String journalName;
+    private CommentJournal journal;
+    private Thread writer;
+    private Thread flusher;
+
+    private record PendingAppend(CommentDTO comment, CompletableFuture<Void> written) {
+    }
+
+    public CommentWriteBehindService(CommentService commentService, UserRepository userRepository, TaskRepository taskRepository,
+                                     CommentJournalCheckpointRepository checkpointRepository,
+                                     TransactionTemplate transactionTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                     @Value("${comments.write-behind.journal-name:}") String journalName,
+                                     @Value("${comments.write-behind.journal-dir:comment-journal}") String journalDir,
+                                     @Value("${comments.write-behind.segment-bytes:67108864}") long segmentBytes,
+                                     @Value("${comments.write-behind.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${comments.write-behind.batch-size:500}") int batchSize,
+                                     @Value("${comments.write-behind.append-timeout-millis:1000}") long appendTimeoutMillis) {
+        if (batchSize < 1 || batchSize > CommentService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("comments.write-behind.batch-size must be between 1 and "
+                    + CommentService.MAX_BATCH_SIZE);
+        }
+        this.commentService = commentService;
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.configuredJournalName = journalName;
+        this.directory = Path.of(journalDir);
+        this.segmentBytes = segmentBytes;
+        this.batchSize = batchSize;
+        this.appendTimeoutMillis = appendTimeoutMillis;
+        this.appends = new ArrayBlockingQueue<>(queueCapacity);
+        this.unflushed = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("comments.journal.unflushed", unflushed, BlockingQueue::size)
+                .description("Comments acknowledged and journaled but not yet stored in the database")
+                .register(meterRegistry);
+    }
+
+    // Journals the comment and returns once it is on disk; it is stored in the database shortly after
+    public CommentDTO append(CommentDTO commentDTO) {
+        if (commentDTO.getContent() == null || commentDTO.getContent().isEmpty()) {
+            throw new IllegalArgumentException("Content cannot be null or empty");
+        }
+        if (commentDTO.getContent().length() > MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("Content cannot be longer than " + MAX_CONTENT_LENGTH + " characters");
+        }
+        if (commentDTO.getUserId() == null || commentDTO.getTaskId() == null) {
+            throw new IllegalArgumentException("Comment must reference a user ID and a task ID");
+        }
+        // Both come from the second-level cache once warm
+        if (userRepository.findById(commentDTO.getUserId()).isEmpty()) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (taskRepository.findById(commentDTO.getTaskId()).isEmpty()) {
+            throw new IllegalArgumentException("Task not found");
+        }
+
+        CommentDTO accepted = new CommentDTO(null, commentDTO.getContent(), null, null,
+                commentDTO.getUserId(), commentDTO.getTaskId());
+        PendingAppend pending = new PendingAppend(accepted, new CompletableFuture<>());
+        stateLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new CommentsUnavailableException("Comments are not being accepted; retry later");
+            }
+            if (!appends.offer(pending, appendTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new CommentsUnavailableException("Too many comments are waiting to be stored; retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommentsUnavailableException("Interrupted while queueing the comment");
+        } finally {
+            stateLock.readLock().unlock();
+        }
+        try {
+            pending.written().join();
+        } catch (CompletionException e) {
+            throw new CommentsUnavailableException("The comment could not be journaled: " + e.getCause().getMessage());
+        }
+        return accepted;
+    }
+
+    @Override
+    public void start() {
+        journalName = resolveJournalName();
+        long checkpoint;
+        // From the primary: the checkpoint is written there with the comments
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            checkpoint = checkpointRepository.findById(journalName).map(CommentJournalCheckpoint::getLastSequence).orElse(0L);
+        }
+        try {
+            journal = CommentJournal.open(directory, segmentBytes, objectMapper, checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the comment journal in " + directory.toAbsolutePath(), e);
+        }
+
+        List<CommentJournal.Entry> recovered = journal.recovered();
+        for (int from = 0; from < recovered.size(); from += batchSize) {
+            flush(recovered.subList(from, Math.min(from + batchSize, recovered.size())));
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Replayed {} journaled comments from {}", recovered.size(), directory.toAbsolutePath());
+        }
+        checkpointed = recovered.isEmpty() ? checkpoint : recovered.get(recovered.size() - 1).sequence();
+
+        running = true;
+        flusherStopped = false;
+        writer = new Thread(this::writeLoop, "comment-journal-writer");
+        flusher = new Thread(this::flushLoop, "comment-journal-flusher");
+        writer.setDaemon(true);
+        flusher.setDaemon(true);
+        writer.start();
+        flusher.start();
+    }
+
+    // Stops taking comments, then stores everything already journaled if the database allows
+    @Override
+    public void stop() {
+        stateLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Closing the comment journal failed", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the web server, so requests never reach a stopped journal
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>();
+        long deletedThrough = checkpointed;
+        while (running || !appends.isEmpty()) {
+            try {
+                PendingAppend first = appends.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    group.add(first);
+                    appends.drainTo(group);
+                    write(group);
+                    group.clear();
+                }
+                long through = checkpointed;
+                if (through > deletedThrough) {
+                    journal.deleteThrough(through);
+                    deletedThrough = through;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("Deleting stored comment journal segments failed", e);
+            }
+        }
+    }
+
+    private void write(List<PendingAppend> group) throws InterruptedException {
+        List<CommentJournal.Entry> entries;
+        try {
+            entries = journal.append(group.stream().map(PendingAppend::comment).toList());
+        } catch (IOException | RuntimeException e) {
+            log.error("Appending {} comments to the journal failed", group.size(), e);
+            group.forEach(pending -> pending.written().completeExceptionally(e));
+            return;
+        }
+        group.forEach(pending -> pending.written().complete(null));
+        for (CommentJournal.Entry entry : entries) {
+            // Waits while the flusher is a full queue behind, which in turn fills the append queue. Once the
+            // flusher has given up (a failed flush during shutdown) the records are replayed at the next start
+            while (!unflushed.offer(entry, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (flusherStopped) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            flushUntilStopped();
+        } finally {
+            flusherStopped = true;
+        }
+    }
+
+    private void flushUntilStopped() {
+        List<CommentJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (writer.isAlive() || !unflushed.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    CommentJournal.Entry first = unflushed.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    unflushed.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    // The records stay in the journal and are replayed at the next start
+                    log.warn("Storing journaled comments failed during shutdown; they will be replayed at startup", e);
+                    return;
+                }
+                log.warn("Storing {} journaled comments failed; retrying", batch.size(), e);
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    // The configured name, or an id kept next to the segments: the checkpoint row belongs to these files,
+    // and two nodes sharing a name would skip each other's records on replay
+    private String resolveJournalName() {
+        if (!configuredJournalName.isBlank()) {
+            return configuredJournalName;
+        }
+        Path idFile = directory.resolve(JOURNAL_ID_FILE);
+        try {
+            if (Files.exists(idFile)) {
+                return Files.readString(idFile).trim();
+            }
+            Files.createDirectories(directory);
+            String id = UUID.randomUUID().toString();
+            Files.writeString(idFile, id, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read or create " + idFile.toAbsolutePath(), e);
+        }
+    }
+
+    // Store the batch and move the checkpoint past it in one transaction
+    private void flush(List<CommentJournal.Entry> batch) {
+        long through = batch.get(batch.size() - 1).sequence();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<CommentDTO> comments = withExistingReferences(batch);
+            if (!comments.isEmpty()) {
+                commentService.saveComments(comments);
+            }
+            checkpointRepository.save(new CommentJournalCheckpoint(journalName, through));
+        });
+        checkpointed = through;
+    }
+
+    // A user or task deleted after its comment was accepted takes the comment with it
+    private List<CommentDTO> withExistingReferences(List<CommentJournal.Entry> batch) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (CommentJournal.Entry entry : batch) {
+            userIds.add(entry.comment().getUserId());
+            taskIds.add(entry.comment().getTaskId());
+        }
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(userIds));
+        Set<Long> existingTasks = new HashSet<>(taskRepository.findExistingIds(taskIds));
+
+        List<CommentDTO> comments = new ArrayList<>(batch.size());
+        for (CommentJournal.Entry entry : batch) {
+            CommentDTO comment = entry.comment();
+            if (existingUsers.contains(comment.getUserId()) && existingTasks.contains(comment.getTaskId())) {
+                comments.add(comment);
+            }
+        }
+        if (comments.size() < batch.size()) {
+            log.info("Dropped {} journaled comments whose user or task was deleted", batch.size() - comments.size());
+        }
+        return comments;
+    }
+
+    private static void sleepBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
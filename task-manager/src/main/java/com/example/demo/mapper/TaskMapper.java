@@ -28,7 +28,7 @@ public class TaskMapper {
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .userId(task.getUser().getId())  // Assuming a User entity with a getId() method
-                .categoryId(task.getCategory().getId())  // Assuming a Category entity with a getId() method
+                .categoryId(task.getCategory() != null ? task.getCategory().getId() : null)  // Category is optional
                 .build();
     }
 
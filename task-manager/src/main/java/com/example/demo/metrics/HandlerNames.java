@@ -0,0 +1,25 @@
+package com.example.demo.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Names the controller method that served a request, e.g. "TaskController.getTasksByUserId"
+public final class HandlerNames {
+
+    public static final String NONE = "none";
+
+    private HandlerNames() {
+    }
+
+    public static String of(HttpServletRequest request) {
+        if (request == null) {
+            return NONE;
+        }
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()}
+ * and {@link #stop()}. Registered as the session factory's statement inspector; it never
+ * rewrites the SQL.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> counts = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = counts.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    public void start() {
+        counts.set(new int[1]);
+    }
+
+    // Statements counted since start(), or -1 if counting was not started on this thread
+    public int stop() {
+        int[] count = counts.get();
+        counts.remove();
+        return count == null ? -1 : count[0];
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.reminder;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: four levels of 64 slots, each level's slot spanning a full
+ * rotation of the level below. Scheduling links an entry into one slot and cancelling
+ * unlinks it, both O(1); entries move down a level only when their slot comes due.
+ * Deadlines beyond the top level's range are parked in its last slot and re-placed when
+ * it is reached. Not thread-safe; the caller serializes all access.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    @SuppressWarnings("unchecked")
+    private final Bucket<T>[][] wheels = new Bucket[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (Bucket<T>[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = new Bucket<>();
+            }
+        }
+    }
+
+    // Deadlines at or before the current tick expire on the next one
+    public Timeout<T> schedule(long deadlineMillis, T payload) {
+        Timeout<T> timeout = new Timeout<>(Math.max(deadlineMillis / tickMillis, currentTick + 1), payload);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    // Returns false if the entry already expired or was cancelled
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.unlink(timeout);
+        size--;
+        return true;
+    }
+
+    // Move time forward, handing every entry whose deadline has passed to the consumer
+    public void advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][(int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+                }
+            }
+            Timeout<T> timeout = wheels[0][(int) currentTick & SLOT_MASK].drain();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                size--;
+                expired.accept(timeout.payload);
+                timeout = next;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void cascade(Bucket<T> bucket) {
+        Timeout<T> timeout = bucket.drain();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.next = null;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.deadlineTick - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                wheels[level][(int) (timeout.deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK].link(timeout);
+                return;
+            }
+        }
+        int topShift = SLOT_BITS * (LEVELS - 1);
+        wheels[LEVELS - 1][(int) ((currentTick >>> topShift) + SLOT_MASK) & SLOT_MASK].link(timeout);
+    }
+
+    // Handle for cancelling a scheduled entry
+    public static final class Timeout<T> {
+
+        private final long deadlineTick;
+        private final T payload;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadlineTick, T payload) {
+            this.deadlineTick = deadlineTick;
+            this.payload = payload;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    // Intrusive doubly-linked list of the entries in one slot
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        void link(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        void unlink(Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        // Detach and return the whole list, linked through next
+        Timeout<T> drain() {
+            Timeout<T> first = head;
+            head = null;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.prev = null;
+            }
+            return first;
+        }
+    }
+}
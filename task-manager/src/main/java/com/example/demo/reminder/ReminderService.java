@@ -0,0 +1,333 @@
+package com.example.demo.reminder;
+
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.enums.TaskStatus;
+import com.example.demo.event.TaskChangedEvent;
+import com.example.demo.event.UserDeletedEvent;
+import com.example.demo.repository.FiredReminderRepository;
+import com.example.demo.repository.FiredReminderView;
+import com.example.demo.repository.TaskDueDate;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.reminder.HierarchicalTimingWheel.Timeout;
+
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fires {@link TaskReminderEvent}s at configured offsets before each open task's due date.
+ * Pending reminders live in a {@link HierarchicalTimingWheel}, loaded from the tasks table at
+ * startup and on reminders.reload-cron, and kept current in between from the task changes
+ * committed on this node. Changes committed on other nodes only reach this wheel at the next
+ * reload, so it may fire reminders for tasks since completed or rescheduled there, and miss ones
+ * whose new due date only the saving node's wheel has. A due reminder is therefore claimed with
+ * an insert into fired_reminders that only succeeds while the task is still open with that due
+ * date, and only once across all nodes. Claimed reminders are not published by the claiming
+ * node: every node reads them back from fired_reminders and publishes each one once, so it
+ * reaches the user's streams on whichever node they are connected to. Reminders whose time has
+ * already passed when a task is saved or loaded are skipped.
+ */
+@Service
+public class ReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderService.class);
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+    // Claims are stamped with the database clock when inserted and committed right after, so one
+    // read back this far covers every claim that became visible since the previous read
+    private static final Duration RELAY_LOOKBACK = Duration.ofSeconds(30);
+    // The wheel has the due date as saved; the database stores it rounded to its fractional seconds
+    private static final Duration DUE_DATE_TOLERANCE = Duration.ofMillis(1);
+
+    private final TaskRepository taskRepository;
+    private final FiredReminderRepository firedReminderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
+    private final List<Duration> offsets;
+    private final long tickMillis;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private HierarchicalTimingWheel<TaskReminderEvent> wheel;
+    private Map<Long, PendingTask> pendingByTask = new HashMap<>();
+    private List<Object> eventsDuringLoad;
+
+    private final Object relayLock = new Object();
+    // Claims already published here, by id, with their fired_at so they can be forgotten once
+    // older than the lookback
+    private final Map<Long, LocalDateTime> relayed = new HashMap<>();
+    private LocalDateTime relayedUpTo;
+
+    public ReminderService(TaskRepository taskRepository, FiredReminderRepository firedReminderRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                           @Value("${reminders.offsets:24h,1h}") String offsets,
+                           @Value("${reminders.tick-millis:1000}") long tickMillis) {
+        this.taskRepository = taskRepository;
+        this.firedReminderRepository = firedReminderRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.offsets = Arrays.stream(offsets.split(","))
+                .map(String::trim)
+                .filter(offset -> !offset.isEmpty())
+                .map(DurationStyle::detectAndParse)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        this.tickMillis = tickMillis;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, System.currentTimeMillis());
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${reminders.tick-millis:1000}")
+    public void tick() {
+        List<TaskReminderEvent> due = new ArrayList<>();
+        synchronized (lock) {
+            advance(wheel, pendingByTask, due);
+        }
+        // Claim outside the lock so the database cannot stall scheduling
+        fire(due);
+    }
+
+    // Caller holds the lock
+    private static void advance(HierarchicalTimingWheel<TaskReminderEvent> target, Map<Long, PendingTask> pending,
+                                List<TaskReminderEvent> due) {
+        target.advanceTo(System.currentTimeMillis(), reminder -> {
+            due.add(reminder);
+            PendingTask task = pending.get(reminder.getTaskId());
+            // Offsets are sorted longest first, so the last timeout is the last to fire
+            if (task != null && task.timeouts.get(task.timeouts.size() - 1).getPayload() == reminder) {
+                pending.remove(reminder.getTaskId());
+            }
+        });
+    }
+
+    // Claim the due reminders still current in the database; returns those this node claimed first.
+    // They are published by relay(), on this node and every other
+    List<TaskReminderEvent> fire(List<TaskReminderEvent> due) {
+        List<TaskReminderEvent> claimed = new ArrayList<>(due.size());
+        for (TaskReminderEvent reminder : due) {
+            try {
+                LocalDateTime dueDate = reminder.getDueDate();
+                if (firedReminderRepository.claim(reminder.getTaskId(), dueDate.minus(DUE_DATE_TOLERANCE),
+                        dueDate.plus(DUE_DATE_TOLERANCE), reminder.getOffset().toSeconds()) == 1) {
+                    claimed.add(reminder);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // The task was deleted while being claimed
+            } catch (DataAccessException e) {
+                log.warn("Claiming the reminder for task {} failed; it is not sent", reminder.getTaskId(), e);
+            }
+        }
+        return claimed;
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.relay-millis:1000}")
+    public void relay() {
+        relayClaimed();
+    }
+
+    // Publish the reminders any node claimed since the last call; returns them
+    List<TaskReminderEvent> relayClaimed() {
+        synchronized (relayLock) {
+            return publishClaimed();
+        }
+    }
+
+    // Caller holds the relay lock
+    private List<TaskReminderEvent> publishClaimed() {
+        List<FiredReminderView> fired;
+        // From the primary: a lagging replica could show a claim only after the lookback has passed it
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            if (relayedUpTo == null) {
+                // Claims made before this node started went to the streams of the nodes running then
+                relayedUpTo = firedReminderRepository.currentTime();
+            }
+            fired = firedReminderRepository.findFiredSince(relayedUpTo.minus(RELAY_LOOKBACK));
+        }
+        List<TaskReminderEvent> published = new ArrayList<>();
+        for (FiredReminderView reminder : fired) {
+            if (relayed.putIfAbsent(reminder.getId(), reminder.getFiredAt()) == null) {
+                published.add(new TaskReminderEvent(reminder.getTaskId(), reminder.getUserId(), reminder.getTitle(),
+                        reminder.getDueDate(), Duration.ofSeconds(reminder.getOffsetSeconds())));
+            }
+            if (reminder.getFiredAt().isAfter(relayedUpTo)) {
+                relayedUpTo = reminder.getFiredAt();
+            }
+        }
+        LocalDateTime forgetBefore = relayedUpTo.minus(RELAY_LOOKBACK);
+        relayed.values().removeIf(firedAt -> firedAt.isBefore(forgetBefore));
+        published.forEach(eventPublisher::publishEvent);
+        return published;
+    }
+
+    // Claims are only checked for due dates still ahead, since no reminder is scheduled for a past one
+    @Scheduled(cron = "${reminders.prune-cron:0 15 4 * * *}")
+    @SchedulerLock(name = "fired-reminders-prune")
+    @Transactional
+    public void pruneFiredReminders() {
+        int removed = firedReminderRepository.deleteDueBefore(LocalDateTime.now());
+        log.info("Pruned {} fired reminders", removed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        apply(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        apply(event);
+    }
+
+    // A full reload also brings in the task changes other nodes committed since the last one
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${reminders.reload-cron:0 0 * * * *}")
+    public void loadInBackground() {
+        if (loading.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    log.error("Loading task reminders failed", e);
+                } finally {
+                    loading.set(false);
+                }
+            });
+        }
+    }
+
+    // Build a fresh wheel from open tasks due in the future, then swap it in
+    public void load() {
+        long started = System.currentTimeMillis();
+        synchronized (lock) {
+            eventsDuringLoad = new ArrayList<>();
+        }
+
+        HierarchicalTimingWheel<TaskReminderEvent> freshWheel = new HierarchicalTimingWheel<>(tickMillis, started);
+        Map<Long, PendingTask> freshPending = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        // From the primary: reloads also follow deletes the replicas may not have applied yet
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            // Start strictly after now: (now, Long.MAX_VALUE) precedes every task due later
+            LocalDateTime dueAfter = now;
+            long idAfter = Long.MAX_VALUE;
+            List<TaskDueDate> page;
+            do {
+                page = taskRepository.findOpenDueDatesAfter(dueAfter, idAfter, Limit.of(LOAD_PAGE_SIZE));
+                for (TaskDueDate task : page) {
+                    schedule(freshWheel, freshPending, task.getId(), task.getUserId(), task.getTitle(), task.getDueDate(), started);
+                    dueAfter = task.getDueDate();
+                    idAfter = task.getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        }
+
+        List<TaskReminderEvent> dueDuringLoad = new ArrayList<>();
+        synchronized (lock) {
+            // The old wheel may or may not hold these (it is empty at startup); the claim sends each once
+            advance(freshWheel, freshPending, dueDuringLoad);
+            for (Object event : eventsDuringLoad) {
+                applyTo(freshWheel, freshPending, event);
+            }
+            eventsDuringLoad = null;
+            wheel = freshWheel;
+            pendingByTask = freshPending;
+        }
+        fire(dueDuringLoad);
+        log.info("Loaded {} task reminders in {} ms", freshWheel.size(), System.currentTimeMillis() - started);
+    }
+
+    private void apply(Object event) {
+        synchronized (lock) {
+            applyTo(wheel, pendingByTask, event);
+            if (eventsDuringLoad != null) {
+                eventsDuringLoad.add(event);
+            }
+        }
+    }
+
+    private void applyTo(HierarchicalTimingWheel<TaskReminderEvent> target, Map<Long, PendingTask> pending, Object event) {
+        if (event instanceof TaskChangedEvent taskEvent) {
+            cancel(target, pending.remove(taskEvent.getTaskId()));
+            TaskDTO task = taskEvent.getTask();
+            if (taskEvent.getType() == TaskChangedEvent.Type.SAVED && task.getStatus() != TaskStatus.COMPLETED) {
+                schedule(target, pending, task.getId(), task.getUserId(), task.getTitle(), task.getDueDate(),
+                        System.currentTimeMillis());
+            }
+        } else if (event instanceof UserDeletedEvent userEvent) {
+            pending.values().removeIf(task -> {
+                if (task.userId.equals(userEvent.getUserId())) {
+                    cancel(target, task);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    private void schedule(HierarchicalTimingWheel<TaskReminderEvent> target, Map<Long, PendingTask> pending,
+                          Long taskId, Long userId, String title, LocalDateTime dueDate, long nowMillis) {
+        if (dueDate == null) {
+            return;
+        }
+        long dueMillis = dueDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        PendingTask task = new PendingTask(userId);
+        for (Duration offset : offsets) {
+            long fireAt = dueMillis - offset.toMillis();
+            if (fireAt > nowMillis) {
+                task.timeouts.add(target.schedule(fireAt, new TaskReminderEvent(taskId, userId, title, dueDate, offset)));
+            }
+        }
+        if (!task.timeouts.isEmpty()) {
+            pending.put(taskId, task);
+        }
+    }
+
+    private static void cancel(HierarchicalTimingWheel<TaskReminderEvent> target, PendingTask task) {
+        if (task != null) {
+            task.timeouts.forEach(target::cancel);
+        }
+    }
+
+    // A task's scheduled reminders, kept so a later save or delete can cancel them
+    private static final class PendingTask {
+
+        private final Long userId;
+        private final List<Timeout<TaskReminderEvent>> timeouts = new ArrayList<>(2);
+
+        private PendingTask(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.reminder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// A reminder some node claimed at its offset before the due date; published on every node
+public class TaskReminderEvent {
+
+    private final Long taskId;
+    private final Long userId;
+    private final String title;
+    private final LocalDateTime dueDate;
+    private final Duration offset;
+
+    public TaskReminderEvent(Long taskId, Long userId, String title, LocalDateTime dueDate, Duration offset) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.title = title;
+        this.dueDate = dueDate;
+        this.offset = offset;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    // How long before the due date this reminder fired
+    public Duration getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.CommentJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CommentJournalCheckpointRepository extends JpaRepository<CommentJournalCheckpoint, String> {
+}
@@ -1,11 +1,28 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.CommentDTO;
 import com.example.demo.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     // Custom method to find comments by task ID
     List<Comment> findByTaskId(Long taskId);
+
+    // Keyset scan of all comments as DTOs, without hydrating entities
+    @Query("select new com.example.demo.dto.CommentDTO(c.id, c.content, c.createdAt, c.updatedAt, c.user.id, c.task.id) "
+            + "from Comment c where c.id > :after order by c.id")
+    List<CommentDTO> findDTOsAfter(@Param("after") Long after, Limit limit);
+
+    @Query("select new com.example.demo.dto.CommentDTO(c.id, c.content, c.createdAt, c.updatedAt, c.user.id, c.task.id) "
+            + "from Comment c where c.task.id = :taskId order by c.id")
+    List<CommentDTO> findDTOsByTaskId(@Param("taskId") Long taskId);
+
+    // Tasks a user has commented on, whose comment lists change when the user is deleted
+    @Query("select distinct c.task.id from Comment c where c.user.id = :userId")
+    List<Long> findTaskIdsByUserId(@Param("userId") Long userId);
 }
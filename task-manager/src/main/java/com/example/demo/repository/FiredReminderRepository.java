@@ -0,0 +1,46 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.FiredReminder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface FiredReminderRepository extends JpaRepository<FiredReminder, Long> {
+
+    // 1 if this call claimed the reminder, 0 if another node did first or the task is no longer open
+    // with a due date in [dueFrom, dueTo] (completed, rescheduled or deleted, possibly on another node).
+    // The row keeps the stored due date, so every node claims the same key; fired_at comes from the
+    // database clock, so every node reads claims back in one order
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "fired_reminders"))
+    @Query(value = "insert ignore into fired_reminders (task_id, due_date, offset_seconds, fired_at) "
+            + "select t.id, t.due_date, :offsetSeconds, localtimestamp(6) from tasks t "
+            + "where t.id = :taskId and t.due_date between :dueFrom and :dueTo and t.status <> 'COMPLETED'",
+            nativeQuery = true)
+    int claim(@Param("taskId") Long taskId, @Param("dueFrom") LocalDateTime dueFrom, @Param("dueTo") LocalDateTime dueTo,
+              @Param("offsetSeconds") long offsetSeconds);
+
+    // Claims stamped at or after since, oldest first, with the task's current owner and title
+    @Query("select r.id as id, r.firedAt as firedAt, t.id as taskId, t.user.id as userId, t.title as title, "
+            + "r.dueDate as dueDate, r.offsetSeconds as offsetSeconds "
+            + "from FiredReminder r join Task t on t.id = r.taskId "
+            + "where r.firedAt >= :since order by r.firedAt, r.id")
+    List<FiredReminderView> findFiredSince(@Param("since") LocalDateTime since);
+
+    // The database clock, in the same terms as fired_at
+    @Query("select local datetime")
+    LocalDateTime currentTime();
+
+    @Modifying
+    @Query("delete from FiredReminder r where r.dueDate < :before")
+    int deleteDueBefore(@Param("before") LocalDateTime before);
+}
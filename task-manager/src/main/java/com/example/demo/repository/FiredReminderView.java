@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+
+// A claimed reminder with what its stream event needs, read back by every node
+public interface FiredReminderView {
+
+    Long getId();
+
+    LocalDateTime getFiredAt();
+
+    Long getTaskId();
+
+    Long getUserId();
+
+    String getTitle();
+
+    LocalDateTime getDueDate();
+
+    long getOffsetSeconds();
+}
@@ -0,0 +1,29 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+
+import java.time.LocalDateTime;
+
+// A task as delta sync returns it, with the version that positions it in the user's change order
+public class TaskChange {
+
+    private final TaskDTO task;
+    private final long changeVersion;
+
+    public TaskChange(Long id, String title, String description, TaskPriority priority, TaskStatus status,
+                      LocalDateTime dueDate, LocalDateTime createdAt, LocalDateTime updatedAt, Long userId,
+                      Long categoryId, long changeVersion) {
+        this.task = new TaskDTO(id, title, description, priority, status, dueDate, createdAt, updatedAt, userId, categoryId);
+        this.changeVersion = changeVersion;
+    }
+
+    public TaskDTO getTask() {
+        return task;
+    }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskCommentVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface TaskCommentVersionRepository extends JpaRepository<TaskCommentVersion, Long> {
+
+    // Single-statement upsert; the row stays locked until the caller's transaction ends
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_comment_versions"))
+    @Query(value = "insert into task_comment_versions (task_id, version) values (:taskId, 1) "
+            + "on duplicate key update version = version + 1", nativeQuery = true)
+    int increment(@Param("taskId") Long taskId);
+
+    @Query("select v.version from TaskCommentVersion v where v.taskId = :taskId")
+    Optional<Long> findVersion(@Param("taskId") Long taskId);
+}
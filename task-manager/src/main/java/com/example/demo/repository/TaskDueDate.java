@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+
+// The fields the reminder scheduler needs, read without loading the entity
+public interface TaskDueDate {
+
+    Long getId();
+
+    Long getUserId();
+
+    String getTitle();
+
+    LocalDateTime getDueDate();
+}
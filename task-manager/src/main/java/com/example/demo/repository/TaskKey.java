@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+
+// Owner, status and priority of a task, read without loading the entity
+public interface TaskKey {
+
+    Long getId();
+
+    Long getUserId();
+
+    TaskStatus getStatus();
+
+    TaskPriority getPriority();
+}
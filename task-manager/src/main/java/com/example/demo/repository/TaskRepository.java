@@ -1,12 +1,22 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.TaskDTO;
 import com.example.demo.entity.Task;
 import com.example.demo.enums.TaskPriority;
 import com.example.demo.enums.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
@@ -15,7 +25,84 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     List<Task> findByPriority(TaskPriority priority);
 
     List<Task> findByUserId(Long userId);
+
     List<Task> findByStatusAndUserId(TaskStatus status, Long userId);
+
     List<Task> findByPriorityAndUserId(TaskPriority priority, Long userId);
+
     Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    // Owner, status and priority of existing tasks, used to keep derived state in step with writes
+    @Query("select t.id as id, t.user.id as userId, t.status as status, t.priority as priority from Task t where t.id = :id")
+    Optional<TaskKey> findKeyById(@Param("id") Long id);
+
+    @Query("select t.id as id, t.user.id as userId, t.status as status, t.priority as priority from Task t where t.id in :ids")
+    List<TaskKey> findKeysByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Tasks that go when their category or owner is deleted
+    @Query("select t.id as id, t.user.id as userId, t.status as status, t.priority as priority from Task t where t.category.id = :categoryId")
+    List<TaskKey> findKeysByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("select t.id as id, t.user.id as userId, t.status as status, t.priority as priority from Task t where t.user.id = :userId")
+    List<TaskKey> findKeysByUserId(@Param("userId") Long userId);
+
+    // Which of the given ids exist, in a single IN query
+    @Query("select t.id from Task t where t.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset scan of open tasks past the (dueDate, id) position, in due date order, for loading
+    // reminders; the redundant dueDate >= bound gives idx_tasks_due_date_id a range to seek to, so
+    // every page starts where the last one ended
+    @Query("select t.id as id, t.user.id as userId, t.title as title, t.dueDate as dueDate from Task t "
+            + "where t.dueDate >= :dueAfter and (t.dueDate > :dueAfter or (t.dueDate = :dueAfter and t.id > :idAfter)) "
+            + "and t.status <> com.example.demo.enums.TaskStatus.COMPLETED "
+            + "order by t.dueDate, t.id")
+    List<TaskDueDate> findOpenDueDatesAfter(@Param("dueAfter") LocalDateTime dueAfter, @Param("idAfter") long idAfter,
+                                            Limit limit);
+
+    // Read-side projection: selects the foreign key columns directly, so no entity or proxy is created
+    String TASK_DTO_SELECT = "select new com.example.demo.dto.TaskDTO(t.id, t.title, t.description, t.priority, t.status, "
+            + "t.dueDate, t.createdAt, t.updatedAt, t.user.id, t.category.id) from Task t ";
+
+    @Query(TASK_DTO_SELECT)
+    List<TaskDTO> findAllDTOs();
+
+    @Query(TASK_DTO_SELECT + "where t.status = :status")
+    List<TaskDTO> findDTOsByStatus(@Param("status") TaskStatus status);
+
+    @Query(TASK_DTO_SELECT + "where t.priority = :priority")
+    List<TaskDTO> findDTOsByPriority(@Param("priority") TaskPriority priority);
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId")
+    List<TaskDTO> findDTOsByUserId(@Param("userId") Long userId);
+
+    @Query(TASK_DTO_SELECT + "where t.id in :ids")
+    List<TaskDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination: rows strictly after the last seen id, in id order
+    @Query(TASK_DTO_SELECT + "where t.id > :after order by t.id")
+    List<TaskDTO> findDTOsAfter(@Param("after") Long after, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.status = :status and t.id > :after order by t.id")
+    List<TaskDTO> findDTOsByStatusAfter(@Param("status") TaskStatus status, @Param("after") Long after, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.priority = :priority and t.id > :after order by t.id")
+    List<TaskDTO> findDTOsByPriorityAfter(@Param("priority") TaskPriority priority, @Param("after") Long after, Limit limit);
+
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId and t.id > :after order by t.id")
+    List<TaskDTO> findDTOsByUserIdAfter(@Param("userId") Long userId, @Param("after") Long after, Limit limit);
+
+    // Delta sync: a user's tasks past the (changeVersion, id) position, served by idx_tasks_user_change
+    @Query("select new com.example.demo.repository.TaskChange(t.id, t.title, t.description, t.priority, t.status, "
+            + "t.dueDate, t.createdAt, t.updatedAt, t.user.id, t.category.id, t.changeVersion) from Task t "
+            + "where t.user.id = :userId "
+            + "and (t.changeVersion > :versionAfter or (t.changeVersion = :versionAfter and t.id > :idAfter)) "
+            + "order by t.changeVersion, t.id")
+    List<TaskChange> findChangesAfter(@Param("userId") Long userId, @Param("versionAfter") long versionAfter,
+                                      @Param("idAfter") long idAfter, Limit limit);
+
+    // Forward-only, read-only cursor over a user's tasks; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(TASK_DTO_SELECT + "where t.user.id = :userId order by t.id")
+    Stream<TaskDTO> streamDTOsByUserId(@Param("userId") Long userId);
 }
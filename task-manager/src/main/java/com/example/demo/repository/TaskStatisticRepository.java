@@ -0,0 +1,40 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskStatistic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TaskStatisticRepository extends JpaRepository<TaskStatistic, Long> {
+
+    List<TaskStatistic> findByUserId(Long userId);
+
+    // Single-statement upsert so concurrent writers never race on the first insert. Native updates
+    // name the table they touch; otherwise Hibernate evicts the whole second-level cache
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_statistics"))
+    @Query(value = "insert into task_statistics (user_id, status, priority, task_count) "
+            + "values (:userId, :status, :priority, :delta) "
+            + "on duplicate key update task_count = task_count + :delta", nativeQuery = true)
+    int increment(@Param("userId") Long userId, @Param("status") String status,
+                  @Param("priority") String priority, @Param("delta") long delta);
+
+    @Modifying
+    @Query("delete from TaskStatistic s where s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Rebuild one user's counters from the tasks table; run after deleteByUserId() in the same transaction
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_statistics"))
+    @Query(value = "insert into task_statistics (user_id, status, priority, task_count) "
+            + "select user_id, status, priority, count(*) from tasks "
+            + "where user_id = :userId and status is not null and priority is not null "
+            + "group by user_id, status, priority", nativeQuery = true)
+    int recomputeForUser(@Param("userId") Long userId);
+}
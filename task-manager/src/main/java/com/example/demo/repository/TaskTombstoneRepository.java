@@ -0,0 +1,25 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    // Delta sync: a user's tombstones past the (changeVersion, id) position
+    @Query("select tb from TaskTombstone tb where tb.userId = :userId "
+            + "and (tb.changeVersion > :versionAfter or (tb.changeVersion = :versionAfter and tb.id > :idAfter)) "
+            + "order by tb.changeVersion, tb.id")
+    List<TaskTombstone> findTombstonesAfter(@Param("userId") Long userId, @Param("versionAfter") long versionAfter,
+                                            @Param("idAfter") long idAfter, Limit limit);
+
+    @Modifying
+    @Query("delete from TaskTombstone tb where tb.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
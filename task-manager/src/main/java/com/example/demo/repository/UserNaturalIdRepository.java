@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.User;
+
+import java.util.Optional;
+
+// Username lookups by natural id, served from the second-level cache after the first hit, and the
+// uncached lookups that credential checks use instead
+public interface UserNaturalIdRepository {
+    Optional<User> findByUsername(String username);
+
+    Optional<User> findCredentialsByUsername(String username);
+
+    Optional<User> findCredentialsById(Long id);
+}
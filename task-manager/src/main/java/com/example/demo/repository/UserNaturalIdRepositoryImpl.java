@@ -0,0 +1,58 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Transactional(readOnly = true)
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Resolves username -> id from the natural-id cache and the user from the entity cache; a
+    // username change updates both when it commits
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+
+    // The second-level cache is local to each node and only sees this node's commits, so password
+    // checks read the row itself and leave the cache alone
+    @Override
+    public Optional<User> findCredentialsByUsername(String username) {
+        return bypassingCache(() -> entityManager.createQuery("select u from User u where u.username = :username", User.class)
+                .setParameter("username", username)
+                .getResultStream()
+                .findFirst());
+    }
+
+    // A query rather than find(): find() applies the JPA cache retrieve mode, which overrides the
+    // session's cache mode and would read the cached entity
+    @Override
+    public Optional<User> findCredentialsById(Long id) {
+        return bypassingCache(() -> entityManager.createQuery("select u from User u where u.id = :id", User.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst());
+    }
+
+    // The session's cache mode, not a query hint: entities a query returns are otherwise still
+    // resolved from the entity cache by id
+    private <T> T bypassingCache(Supplier<T> lookup) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            return lookup.get();
+        } finally {
+            session.setCacheMode(previous);
+        }
+    }
+}
@@ -1,15 +1,29 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
+    // findByUsername comes from UserNaturalIdRepository and goes through the natural-id cache. The
+    // registration uniqueness checks always go to the database, so they see other nodes' sign-ups
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Optional<User> findById(Long id);
+
+    // Which of the given ids exist, in a single IN query
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset scan of user ids, for jobs that work through users in small transactions
+    @Query("select u.id from User u where u.id > :after order by u.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
 }
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.UserTaskVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserTaskVersionRepository extends JpaRepository<UserTaskVersion, Long> {
+
+    // Single-statement upsert; the row stays locked until the caller's transaction ends
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_task_versions"))
+    @Query(value = "insert into user_task_versions (user_id, version) values (:userId, 1) "
+            + "on duplicate key update version = version + 1", nativeQuery = true)
+    int increment(@Param("userId") Long userId);
+
+    @Query("select v.version from UserTaskVersion v where v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+
+    @Query("select v.userId as userId, v.version as version from UserTaskVersion v where v.userId in :userIds")
+    List<UserVersion> findVersions(@Param("userIds") Collection<Long> userIds);
+}
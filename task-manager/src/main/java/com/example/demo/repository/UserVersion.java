@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+// A user's task list version, read as scalars so repeated reads in one transaction see each increment
+public interface UserVersion {
+
+    Long getUserId();
+
+    Long getVersion();
+}
@@ -0,0 +1,222 @@
+package com.example.demo.search;
+
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.event.CommentChangedEvent;
+import com.example.demo.event.TaskChangedEvent;
+import com.example.demo.event.UserDeletedEvent;
+import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.TaskRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link TaskSearchIndex} in step with committed task and comment writes and answers
+ * search queries. The index is rebuilt from the repositories in the background at startup and
+ * on search.rebuild-cron; changes that commit during a rebuild are replayed onto the new index
+ * before it is swapped in.
+ * <p>
+ * Each node holds its own index in its heap. Writes committed on this node show up at once;
+ * writes committed on other nodes only with the next rebuild, so with several nodes search lags
+ * them by up to the rebuild interval. The index holds at most search.max-tasks tasks (about
+ * 1.2 KB each, twice over while a rebuild builds the replacement); beyond that, further tasks
+ * are not searchable until others are deleted.
+ */
+@Service
+public class TaskSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchService.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final int MAX_RESULTS = 100;
+
+    private final TaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final TaskExecutor taskExecutor;
+    private final int maxTasks;
+
+    private final Object writeLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile TaskSearchIndex index;
+    private List<Object> pendingDuringRebuild;
+
+    // A task read back with all its comments, indexed as one document
+    private record StoredTask(TaskDTO task, List<CommentDTO> comments) {
+    }
+
+    public TaskSearchService(TaskRepository taskRepository, CommentRepository commentRepository,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             @Value("${search.max-tasks:200000}") int maxTasks) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.taskExecutor = taskExecutor;
+        this.maxTasks = maxTasks;
+        this.index = new TaskSearchIndex(maxTasks);
+    }
+
+    // Tasks of the user matching the query, best match first
+    public List<TaskDTO> search(Long userId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query cannot be empty");
+        }
+        List<Long> taskIds = index.search(userId, query, Math.min(Math.max(limit, 1), MAX_RESULTS));
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TaskDTO> byId = taskRepository.findDTOsByIdIn(taskIds).stream()
+                .collect(Collectors.toMap(TaskDTO::getId, task -> task));
+        return taskIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        apply(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (event.getType() != CommentChangedEvent.Type.DELETED && !index.containsTask(event.getTaskId())) {
+            // The index never saw the task (saved on another node since the last rebuild, or left out
+            // when the index was full), so one comment alone cannot be placed: read the whole task
+            indexFromDatabase(event.getTaskId());
+            return;
+        }
+        apply(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        apply(event);
+    }
+
+    // Later rebuilds bring in the writes other nodes committed since the last one
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${search.rebuild-cron:0 30 * * * *}")
+    public void rebuildInBackground() {
+        if (rebuilding.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Task search index rebuild failed", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    // Build a fresh index from the repositories, reading in keyset pages of projections
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (writeLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+
+        TaskSearchIndex fresh = new TaskSearchIndex(maxTasks);
+        int skipped = 0;
+        // From the primary: rebuilds also follow deletes the replicas may not have applied yet
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            long afterTaskId = 0L;
+            List<TaskDTO> tasks;
+            do {
+                tasks = taskRepository.findDTOsAfter(afterTaskId, Limit.of(REBUILD_PAGE_SIZE));
+                for (TaskDTO task : tasks) {
+                    if (!fresh.indexTask(task.getId(), task.getUserId(), task.getTitle(), task.getDescription())) {
+                        skipped++;
+                    }
+                    afterTaskId = task.getId();
+                }
+            } while (tasks.size() == REBUILD_PAGE_SIZE);
+
+            long afterCommentId = 0L;
+            List<CommentDTO> comments;
+            do {
+                comments = commentRepository.findDTOsAfter(afterCommentId, Limit.of(REBUILD_PAGE_SIZE));
+                for (CommentDTO comment : comments) {
+                    fresh.indexComment(comment.getId(), comment.getTaskId(), comment.getContent());
+                    afterCommentId = comment.getId();
+                }
+            } while (comments.size() == REBUILD_PAGE_SIZE);
+        }
+
+        synchronized (writeLock) {
+            pendingDuringRebuild.forEach(event -> applyTo(fresh, event));
+            pendingDuringRebuild = null;
+            index = fresh;
+        }
+        log.info("Task search index rebuilt: {} tasks in {} ms", fresh.size(), System.currentTimeMillis() - started);
+        if (skipped > 0) {
+            log.warn("Task search index is full at {} tasks (search.max-tasks); {} tasks are not searchable", maxTasks, skipped);
+        }
+    }
+
+    private void indexFromDatabase(Long taskId) {
+        StoredTask stored;
+        // From the primary, which has the write that triggered this
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            List<TaskDTO> tasks = taskRepository.findDTOsByIdIn(List.of(taskId));
+            if (tasks.isEmpty()) {
+                return;
+            }
+            stored = new StoredTask(tasks.get(0), commentRepository.findDTOsByTaskId(taskId));
+        }
+        apply(stored);
+    }
+
+    private void apply(Object event) {
+        synchronized (writeLock) {
+            applyTo(index, event);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+        }
+    }
+
+    private static void applyTo(TaskSearchIndex target, Object event) {
+        if (event instanceof TaskChangedEvent taskEvent) {
+            if (taskEvent.getType() == TaskChangedEvent.Type.DELETED) {
+                target.removeTask(taskEvent.getTaskId());
+            } else {
+                TaskDTO task = taskEvent.getTask();
+                target.indexTask(task.getId(), task.getUserId(), task.getTitle(), task.getDescription());
+            }
+        } else if (event instanceof CommentChangedEvent commentEvent) {
+            if (commentEvent.getType() == CommentChangedEvent.Type.DELETED) {
+                target.removeComment(commentEvent.getCommentId(), commentEvent.getTaskId());
+            } else {
+                CommentDTO comment = commentEvent.getComment();
+                target.indexComment(comment.getId(), comment.getTaskId(), comment.getContent());
+            }
+        } else if (event instanceof UserDeletedEvent userEvent) {
+            target.removeUser(userEvent.getUserId());
+        } else if (event instanceof StoredTask stored) {
+            TaskDTO task = stored.task();
+            if (target.indexTask(task.getId(), task.getUserId(), task.getTitle(), task.getDescription())) {
+                stored.comments().forEach(comment -> target.indexComment(comment.getId(), task.getId(), comment.getContent()));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.search;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Splits text into lower-cased letter/digit terms and counts them
+public final class Tokenizer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "to", "with");
+
+    private Tokenizer() {
+    }
+
+    public static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(text, frequencies);
+        return frequencies;
+    }
+
+    public static void addTerms(String text, Map<String, Integer> frequencies) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(text.substring(start, i), frequencies);
+                start = -1;
+            }
+        }
+    }
+
+    private static void addTerm(String raw, Map<String, Integer> frequencies) {
+        if (raw.length() < MIN_TERM_LENGTH || raw.length() > MAX_TERM_LENGTH) {
+            return;
+        }
+        String term = raw.toLowerCase(Locale.ROOT);
+        if (!STOP_WORDS.contains(term)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.demo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-evicting cache of credentials that already passed a full BCrypt check.
+ * Entries are keyed on an HMAC of (username, presented secret) under a per-process random key,
+ * so neither the secret nor an offline-crackable hash of it is kept in memory. Each entry also
+ * records the username as stored, which invalidation matches on, so it removes logins made with
+ * any case of the name. Invalidation only reaches this node's cache: after a password change,
+ * rename or deletion on another node, logins cached here keep working for up to ttl-seconds.
+ */
+@Component
+public class AuthenticationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadLocal<Mac> macs;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public AuthenticationCache(@Value("${security.auth-cache.max-entries:10000}") int maxEntries,
+                               @Value("${security.auth-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+    }
+
+    // Current invalidation generation; pass it back to put() so a racing invalidation wins
+    public long generation() {
+        return generation.get();
+    }
+
+    // Return the cached principal if these exact credentials were verified recently
+    public UserDetails get(String username, String secret) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = digest(username, secret);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.principal;
+    }
+
+    // Remember credentials that were just verified against the user store; username is the one
+    // presented, the principal carries the one stored
+    public void put(String username, String secret, UserDetails principal, long expectedGeneration) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        String storedUsername = principal.getUsername();
+        entries.put(digest(username, secret), new Entry(storedUsername, principal, System.currentTimeMillis() + ttlMillis));
+        // An invalidation that ran while the caller was verifying must not be undone
+        if (generation.get() != expectedGeneration) {
+            invalidate(storedUsername);
+        }
+    }
+
+    // Drop every cached credential for a user (password change, rename or deletion), by the
+    // username as stored
+    public void invalidate(String username) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> entry.username.equals(username));
+    }
+
+    // Invalidate once the caller's transaction commits (now, outside one). Before the commit a
+    // verification still reads the old credentials and would cache them again.
+    public void invalidateAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(username);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    // Remove expired entries first, then arbitrary ones until there is room again
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt < now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private String digest(String username, String secret) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        byte[] hash = mac.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private static final class Entry {
+        private final String username;
+        private final UserDetails principal;
+        private final long expiresAt;
+
+        private Entry(String username, UserDetails principal, long expiresAt) {
+            this.username = username;
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
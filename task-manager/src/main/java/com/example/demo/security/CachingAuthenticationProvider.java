@@ -0,0 +1,52 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Serves repeat username/password authentications from {@link AuthenticationCache},
+ * skipping both the user lookup and the password hash check; misses go to the delegate.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final AuthenticationCache authenticationCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, AuthenticationCache authenticationCache) {
+        this.delegate = delegate;
+        this.authenticationCache = authenticationCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+
+        String secret = credentials.toString();
+        UserDetails cached = authenticationCache.get(username, secret);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result =
+                    UsernamePasswordAuthenticationToken.authenticated(cached, null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        long generation = authenticationCache.generation();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated() && result.getPrincipal() instanceof UserDetails principal) {
+            authenticationCache.put(username, secret, principal, generation);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.service;
+
+import com.example.demo.datasource.ReplicaRoutingDataSource;
+import com.example.demo.dto.CategoryDTO;
+import com.example.demo.event.CategoryChangedEvent;
+import com.example.demo.mapper.CategoryMapper;
+import com.example.demo.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process copy of the (small, rarely changing) categories table. Reads, id validation and the
+ * serialized GET /categories body come from an immutable snapshot that is loaded on first use and
+ * replaced after every committed category change. The snapshot is also refreshed periodically so
+ * changes made by other nodes show up; an id the snapshot does not know yet is looked up in the
+ * database, so a category just created on another node is never rejected.
+ */
+@Service
+public class CategoryRegistry {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private final ObjectMapper objectMapper;
+    private final long refreshMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+    // A lock rather than synchronized: loading does JDBC I/O, which would pin a virtual thread's carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public CategoryRegistry(CategoryRepository categoryRepository, CategoryMapper categoryMapper, ObjectMapper objectMapper,
+                            @Value("${categories.registry.refresh-seconds:60}") long refreshSeconds) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+        this.objectMapper = objectMapper;
+        this.refreshMillis = refreshSeconds * 1000;
+    }
+
+    public boolean exists(Long id) {
+        return find(id).isPresent();
+    }
+
+    public Optional<CategoryDTO> find(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        CategoryDTO category = current().byId.get(id);
+        return category != null ? Optional.of(category) : readThrough(id);
+    }
+
+    public List<CategoryDTO> getAll() {
+        return current().all;
+    }
+
+    // JSON array of all categories, serialized once per snapshot
+    public byte[] getAllJson() {
+        return current().json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        generation.incrementAndGet();
+        loadLock.lock();
+        try {
+            snapshot = load(generation.get());
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = snapshot;
+            if (!isFresh(current)) {
+                current = load(generation.get());
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Unknown id: a primary-key check on the primary, and a reload only if another node created the row
+    private Optional<CategoryDTO> readThrough(Long id) {
+        boolean exists;
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            exists = categoryRepository.existsById(id);
+        }
+        if (!exists) {
+            return Optional.empty();
+        }
+        loadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (current == null || !current.byId.containsKey(id)) {
+                current = load(generation.get());
+                snapshot = current;
+            }
+            return Optional.ofNullable(current.byId.get(id));
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // A snapshot loaded while a change was committing carries an old generation and is reloaded
+    private boolean isFresh(Snapshot current) {
+        return current != null
+                && current.generation == generation.get()
+                && System.currentTimeMillis() - current.loadedAt < refreshMillis;
+    }
+
+    private Snapshot load(long loadGeneration) {
+        Map<Long, CategoryDTO> byId = new LinkedHashMap<>();
+        // From the primary: a reload follows a commit the replicas may not have applied yet
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            categoryRepository.findAll().forEach(category -> byId.put(category.getId(), categoryMapper.toDTO(category)));
+        }
+        List<CategoryDTO> all = List.copyOf(byId.values());
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(all);
+            return new Snapshot(loadGeneration, System.currentTimeMillis(), Collections.unmodifiableMap(byId), all, json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize categories", e);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long generation;
+        private final long loadedAt;
+        private final Map<Long, CategoryDTO> byId;
+        private final List<CategoryDTO> all;
+        private final byte[] json;
+
+        private Snapshot(long generation, long loadedAt, Map<Long, CategoryDTO> byId, List<CategoryDTO> all, byte[] json) {
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.byId = byId;
+            this.all = all;
+            this.json = json;
+        }
+    }
+}
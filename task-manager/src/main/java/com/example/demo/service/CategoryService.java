@@ -2,14 +2,16 @@ package com.example.demo.service;
 
 import com.example.demo.dto.CategoryDTO;
 import com.example.demo.entity.Category;
+import com.example.demo.event.CategoryChangedEvent;
 import com.example.demo.mapper.CategoryMapper;
 import com.example.demo.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
@@ -18,10 +20,21 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
 	@Autowired
     private final CategoryMapper categoryMapper;
+	@Autowired
+    private final ApplicationEventPublisher eventPublisher;
+	@Autowired
+    private final CategoryRegistry categoryRegistry;
+	@Autowired
+    private final TaskService taskService;
 
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper,
+                           ApplicationEventPublisher eventPublisher, CategoryRegistry categoryRegistry,
+                           TaskService taskService) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.eventPublisher = eventPublisher;
+        this.categoryRegistry = categoryRegistry;
+        this.taskService = taskService;
     }
 
     // Create a new category
@@ -33,6 +46,7 @@ public class CategoryService {
 
         // Save category to the database
         category = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(CategoryChangedEvent.Type.SAVED, category.getId()));
 
         // Convert Category entity to CategoryDTO and return
         return categoryMapper.toDTO(category);
@@ -40,19 +54,21 @@ public class CategoryService {
 
     // Get all categories
     public List<CategoryDTO> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll();
-        return categories.stream()
-                .map(categoryMapper::toDTO)
-                .collect(Collectors.toList());
+        return categoryRegistry.getAll();
+    }
+
+    // Get all categories as a pre-serialized JSON array
+    public byte[] getAllCategoriesJson() {
+        return categoryRegistry.getAllJson();
     }
 
     // Get category by ID
     public CategoryDTO getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id).orElse(null);
-        return category != null ? categoryMapper.toDTO(category) : null;
+        return categoryRegistry.find(id).orElse(null);
     }
 
     // Update an existing category
+    @Transactional
     public CategoryDTO updateCategory(Long id, String name, String color, String icon) {
         Optional<Category> existingCategory = categoryRepository.findById(id);
         if (existingCategory.isPresent()) {
@@ -61,13 +77,17 @@ public class CategoryService {
             category.setColor(color);
             category.setIcon(icon);
             category = categoryRepository.save(category);
+            eventPublisher.publishEvent(new CategoryChangedEvent(CategoryChangedEvent.Type.SAVED, category.getId()));
             return categoryMapper.toDTO(category);
         }
         return null;
     }
 
-    // Delete a category
+    // Delete a category; its tasks go first, through the same path as a single task delete
+    @Transactional
     public void deleteCategory(Long id) {
+        taskService.deleteTasksInCategory(id);
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(CategoryChangedEvent.Type.DELETED, id));
     }
 }
@@ -0,0 +1,321 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ChangeEventDTO;
+import com.example.demo.dto.ReminderDTO;
+import com.example.demo.event.CommentChangedEvent;
+import com.example.demo.event.TaskChangedEvent;
+import com.example.demo.event.UserDeletedEvent;
+import com.example.demo.reminder.TaskReminderEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Pushes committed task and comment changes, and task reminders, to each user's open Server-Sent
+ * Events streams.
+ * An idle connection holds no thread, only its emitter and an empty queue. Each event is
+ * serialized once, then queued on every connection of its user and written by a bounded pool
+ * of its own, so clients that read slowly never hold threads that exports, search rebuilds or
+ * reminder loads need. A connection whose queue fills up, or that finds the pool's queue full,
+ * is closed and resumes from the replay buffer via Last-Event-ID. When the id is too old or from another process, the client gets a
+ * "reset" event and should resync through the changes endpoint.
+ */
+@Service
+public class ChangeStreamService {
+
+    public static final String RESET = "reset";
+
+    private final ObjectMapper objectMapper;
+    // Not a bean: an Executor bean would replace Boot's applicationTaskExecutor
+    private final ThreadPoolTaskExecutor writers;
+    private final long timeoutMillis;
+    private final int connectionBuffer;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36)
+            + Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    // Ring of recent events for replay; appends and deliveries happen under its lock
+    private final Entry[] replayBuffer;
+    private long lastSequence;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+
+    private record Entry(long sequence, Long userId, String id, String name, String data) {
+    }
+
+    private static final Entry HEARTBEAT = new Entry(0, null, null, null, null);
+
+    public ChangeStreamService(ObjectMapper objectMapper,
+                               @Value("${tasks.events.timeout-millis:1800000}") long timeoutMillis,
+                               @Value("${tasks.events.replay-buffer:10000}") int replayBuffer,
+                               @Value("${tasks.events.connection-buffer:256}") int connectionBuffer,
+                               @Value("${tasks.events.writer-threads:16}") int writerThreads,
+                               @Value("${tasks.events.writer-queue-capacity:10000}") int writerQueueCapacity) {
+        this.objectMapper = objectMapper;
+        this.writers = new ThreadPoolTaskExecutor();
+        writers.setCorePoolSize(writerThreads);
+        writers.setMaxPoolSize(writerThreads);
+        writers.setQueueCapacity(writerQueueCapacity);
+        writers.setThreadNamePrefix("sse-writer-");
+        writers.initialize();
+        this.timeoutMillis = timeoutMillis;
+        this.replayBuffer = new Entry[replayBuffer];
+        this.connectionBuffer = connectionBuffer;
+    }
+
+    // Open a stream for the user, first replaying what was missed after lastEventId
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(() -> disconnect(connection));
+        emitter.onTimeout(() -> disconnect(connection));
+        emitter.onError(error -> disconnect(connection));
+
+        synchronized (replayBuffer) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(connection, lastEventId);
+            }
+            connections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        }
+        connection.wake();
+        return emitter;
+    }
+
+    public int connectionCount() {
+        return connections.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdown();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (event.getType() == TaskChangedEvent.Type.DELETED) {
+            publish(event.getUserId(), "task.deleted", new ChangeEventDTO(event.getTaskId(), null, null, null));
+            return;
+        }
+        publish(event.getUserId(), "task.saved", new ChangeEventDTO(event.getTaskId(), null, event.getTask(), null));
+        if (event.getPreviousUserId() != null && !event.getPreviousUserId().equals(event.getUserId())) {
+            // The task changed hands; for the previous owner it is gone
+            publish(event.getPreviousUserId(), "task.deleted", new ChangeEventDTO(event.getTaskId(), null, null, null));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        if (event.getTaskOwnerId() == null) {
+            return;
+        }
+        if (event.getType() == CommentChangedEvent.Type.DELETED) {
+            publish(event.getTaskOwnerId(), "comment.deleted",
+                    new ChangeEventDTO(event.getTaskId(), event.getCommentId(), null, null));
+        } else {
+            publish(event.getTaskOwnerId(), "comment.saved",
+                    new ChangeEventDTO(event.getTaskId(), event.getCommentId(), null, event.getComment()));
+        }
+    }
+
+    // Every node publishes every claimed reminder (see ReminderService), so it reaches the user's streams here too
+    @EventListener
+    public void onTaskReminder(TaskReminderEvent event) {
+        ChangeEventDTO change = new ChangeEventDTO(event.getTaskId(), null, null, null);
+        change.setReminder(new ReminderDTO(event.getTitle(), event.getDueDate(), event.getOffset().toMinutes()));
+        publish(event.getUserId(), "task.reminder", change);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        Set<Connection> userConnections = connections.remove(event.getUserId());
+        if (userConnections != null) {
+            userConnections.forEach(connection -> connection.emitter.complete());
+        }
+    }
+
+    // Keeps proxies and NAT tables from dropping idle streams and detects dead clients
+    @Scheduled(fixedRateString = "${tasks.events.heartbeat-millis:25000}")
+    public void heartbeat() {
+        connections.values().forEach(userConnections -> userConnections.forEach(Connection::heartbeat));
+    }
+
+    private void publish(Long userId, String name, ChangeEventDTO change) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change event", e);
+        }
+        synchronized (replayBuffer) {
+            long sequence = ++lastSequence;
+            Entry entry = new Entry(sequence, userId, epoch + "-" + sequence, name, data);
+            replayBuffer[(int) (sequence % replayBuffer.length)] = entry;
+            Set<Connection> userConnections = connections.get(userId);
+            if (userConnections != null) {
+                userConnections.forEach(connection -> connection.deliver(entry));
+            }
+        }
+    }
+
+    // Caller holds the replay buffer lock
+    private void replay(Connection connection, String lastEventId) {
+        long after = parseSequence(lastEventId);
+        long oldest = Math.max(1, lastSequence - replayBuffer.length + 1);
+        if (after < 0 || after > lastSequence || after + 1 < oldest) {
+            connection.reset();
+            return;
+        }
+        for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+            Entry entry = replayBuffer[(int) (sequence % replayBuffer.length)];
+            if (entry.userId.equals(connection.userId)) {
+                connection.enqueue(entry);
+            }
+        }
+    }
+
+    // Sequence number of an id issued by this process, or -1
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        connections.computeIfPresent(connection.userId, (userId, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+
+    // One open stream; a single drain task at a time writes its queue to the emitter
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        // Live event: a slow reader is dropped rather than buffered without bound
+        void deliver(Entry entry) {
+            boolean overflowed = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() < connectionBuffer) {
+                    queue.add(entry);
+                } else {
+                    closed = overflowed = true;
+                    queue.clear();
+                }
+            }
+            if (overflowed) {
+                emitter.complete(); // The client reconnects with Last-Event-ID and catches up from the replay buffer
+            } else {
+                wake();
+            }
+        }
+
+        // Replayed events are bounded by the replay buffer, not the connection buffer
+        synchronized void enqueue(Entry entry) {
+            queue.add(entry);
+        }
+
+        void reset() {
+            enqueue(new Entry(0, userId, null, RESET, "{}"));
+            wake();
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (!queue.isEmpty()) {
+                    return; // Pending events already show the connection is alive
+                }
+                queue.add(HEARTBEAT);
+            }
+            wake();
+        }
+
+        void wake() {
+            synchronized (this) {
+                if (draining || closed || queue.isEmpty()) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                writers.execute(this::drain);
+            } catch (TaskRejectedException e) {
+                // Every writer is busy and the backlog is full; the client reconnects with Last-Event-ID
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                closed = true;
+                draining = false;
+                queue.clear();
+            }
+            disconnect(this);
+        }
+
+        private void drain() {
+            while (true) {
+                Entry entry;
+                synchronized (this) {
+                    entry = queue.poll();
+                    if (entry == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    if (entry == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        SseEmitter.SseEventBuilder event = SseEmitter.event()
+                                .name(entry.name())
+                                .data(entry.data(), MediaType.APPLICATION_JSON);
+                        emitter.send(entry.id() == null ? event : event.id(entry.id()));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
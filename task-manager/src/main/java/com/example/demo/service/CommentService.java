@@ -2,19 +2,32 @@ package com.example.demo.service;
 
 import com.example.demo.dto.CommentDTO;
 import com.example.demo.entity.Comment;
+import com.example.demo.event.CommentChangedEvent;
 import com.example.demo.repository.CommentRepository;
+import com.example.demo.repository.TaskKey;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.mapper.CommentMapper;  // Import the CommentMapper
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class CommentService {
+
+    public static final int MAX_BATCH_SIZE = 5000;
+    private static final int FLUSH_SIZE = 50; // Matches hibernate.jdbc.batch_size
 	
     @Autowired
     private final CommentRepository commentRepository;
@@ -22,14 +35,25 @@ public class CommentService {
     private final UserRepository userRepository;
     @Autowired
     private final TaskRepository taskRepository;
+    @Autowired
+    private final ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private final ResourceVersionService resourceVersionService;
 
-    public CommentService(CommentRepository commentRepository, UserRepository userRepository, TaskRepository taskRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CommentService(CommentRepository commentRepository, UserRepository userRepository, TaskRepository taskRepository,
+                          ApplicationEventPublisher eventPublisher, ResourceVersionService resourceVersionService) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.resourceVersionService = resourceVersionService;
     }
 
     // Create a comment for a task
+    @Transactional
     public CommentDTO saveComment(CommentDTO commentDTO) {
         // Use the mapper to convert DTO to entity
         Comment comment = CommentMapper.toEntity(commentDTO);  // Call static method
@@ -39,18 +63,90 @@ public class CommentService {
         taskRepository.findById(commentDTO.getTaskId()).ifPresent(comment::setTask);
 
         comment = commentRepository.save(comment);
+        if (comment.getTask() != null) {
+            resourceVersionService.commentsChanged(List.of(comment.getTask().getId()));
+        }
 
         // Use the mapper to convert the saved entity back to DTO
-        return CommentMapper.toDTO(comment);  // Call static method
+        CommentDTO savedComment = CommentMapper.toDTO(comment);  // Call static method
+        Long taskOwnerId = comment.getTask() == null ? null : comment.getTask().getUser().getId();
+        eventPublisher.publishEvent(CommentChangedEvent.saved(savedComment, taskOwnerId));
+        return savedComment;
+    }
+
+    // Create many comments in one transaction; ids are checked in bulk and inserts are batched
+    @Transactional
+    public List<CommentDTO> saveComments(List<CommentDTO> commentDTOs) {
+        if (commentDTOs.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " comments");
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> taskIds = new HashSet<>();
+        for (CommentDTO commentDTO : commentDTOs) {
+            if (commentDTO.getContent() == null || commentDTO.getContent().isEmpty()) {
+                throw new IllegalArgumentException("Content cannot be null or empty");
+            }
+            if (commentDTO.getUserId() == null || commentDTO.getTaskId() == null) {
+                throw new IllegalArgumentException("Comment must reference a user ID and a task ID");
+            }
+            userIds.add(commentDTO.getUserId());
+            taskIds.add(commentDTO.getTaskId());
+        }
+
+        if (!userIds.isEmpty() && userRepository.findExistingIds(userIds).size() != userIds.size()) {
+            throw new IllegalArgumentException("User not found");
+        }
+        // The same IN query checks the tasks exist and tells whose tasks they are
+        Map<Long, Long> taskOwners = taskIds.isEmpty() ? Map.of() : taskRepository.findKeysByIdIn(taskIds).stream()
+                .collect(Collectors.toMap(TaskKey::getId, TaskKey::getUserId));
+        if (taskOwners.size() != taskIds.size()) {
+            throw new IllegalArgumentException("Task not found");
+        }
+        if (!taskIds.isEmpty()) {
+            resourceVersionService.commentsChanged(taskIds);
+        }
+
+        List<CommentDTO> saved = new ArrayList<>(commentDTOs.size());
+        List<Comment> chunk = new ArrayList<>(FLUSH_SIZE);
+        for (CommentDTO commentDTO : commentDTOs) {
+            Comment comment = CommentMapper.toEntity(commentDTO);
+            comment.setId(null);
+            comment.setUser(userRepository.getReferenceById(commentDTO.getUserId()));
+            comment.setTask(taskRepository.getReferenceById(commentDTO.getTaskId()));
+            chunk.add(comment);
+
+            if (chunk.size() == FLUSH_SIZE) {
+                saved.addAll(flushChunk(chunk, taskOwners));
+            }
+        }
+        saved.addAll(flushChunk(chunk, taskOwners));
+        return saved;
+    }
+
+    // Write one JDBC batch and clear the persistence context so large imports stay flat in memory
+    private List<CommentDTO> flushChunk(List<Comment> chunk, Map<Long, Long> taskOwners) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        List<CommentDTO> saved = CommentMapper.toDTOList(commentRepository.saveAll(chunk));
+        saved.forEach(comment -> eventPublisher.publishEvent(
+                CommentChangedEvent.saved(comment, taskOwners.get(comment.getTaskId()))));
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+        return saved;
     }
 
     // Find a comment by ID
+    @Transactional(readOnly = true)
     public Optional<CommentDTO> findCommentById(Long id) {
         Optional<Comment> comment = commentRepository.findById(id);
         return comment.map(CommentMapper::toDTO);  // Call static method
     }
 
     // Get comments by task ID
+    @Transactional(readOnly = true)
     public List<CommentDTO> getCommentsByTaskId(Long taskId) {
         List<Comment> comments = commentRepository.findByTaskId(taskId);
         return comments.stream()
@@ -59,19 +155,33 @@ public class CommentService {
     }
 
     // Update an existing comment
+    @Transactional
     public CommentDTO updateComment(Long id, String content) {
         Optional<Comment> comment = commentRepository.findById(id);
         if (comment.isPresent()) {
             Comment updatedComment = comment.get();
             updatedComment.setContent(content);
             updatedComment = commentRepository.save(updatedComment);
-            return CommentMapper.toDTO(updatedComment);  // Call static method
+            resourceVersionService.commentsChanged(List.of(updatedComment.getTask().getId()));
+            CommentDTO savedComment = CommentMapper.toDTO(updatedComment);  // Call static method
+            eventPublisher.publishEvent(CommentChangedEvent.saved(savedComment, taskOwnerId(savedComment.getTaskId())));
+            return savedComment;
         }
         return null; // Or throw exception if comment not found
     }
 
     // Delete a comment
+    @Transactional
     public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            Long taskId = comment.getTask().getId();
+            commentRepository.delete(comment);
+            resourceVersionService.commentsChanged(List.of(taskId));
+            eventPublisher.publishEvent(CommentChangedEvent.deleted(id, taskId, taskOwnerId(taskId)));
+        });
+    }
+
+    private Long taskOwnerId(Long taskId) {
+        return taskRepository.findKeyById(taskId).map(TaskKey::getUserId).orElse(null);
     }
 }
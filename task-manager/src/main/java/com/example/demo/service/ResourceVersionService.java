@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.TaskCommentVersionRepository;
+import com.example.demo.repository.UserTaskVersionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Strong ETags of the polling endpoints, derived from state every node shares. A user's task list
+ * is tagged with its sync version (user_task_versions, see TaskSyncService) and a task's comment
+ * list with task_comment_versions; both are incremented in the writing transaction, so a tag moves
+ * exactly when the data it covers commits. The category list is tagged with a hash of its body.
+ * <p>
+ * A version and the body it tags are read in one read-only transaction, version first. Both then
+ * come from the same database, so a replica that has not applied a change yet serves the old body
+ * under the old tag and a client never keeps a stale body under a tag that matches the new data.
+ */
+@Service
+public class ResourceVersionService {
+
+    private final UserTaskVersionRepository userTaskVersionRepository;
+    private final TaskCommentVersionRepository taskCommentVersionRepository;
+
+    public ResourceVersionService(UserTaskVersionRepository userTaskVersionRepository,
+                                  TaskCommentVersionRepository taskCommentVersionRepository) {
+        this.userTaskVersionRepository = userTaskVersionRepository;
+        this.taskCommentVersionRepository = taskCommentVersionRepository;
+    }
+
+    // A user's tasks under their tag; the body is not read when notModified accepts the tag
+    @Transactional(readOnly = true)
+    public <T> Tagged<T> readUserTasks(Long userId, Predicate<String> notModified, Supplier<T> body) {
+        return read("\"t-" + userTaskVersionRepository.findVersion(userId).orElse(0L) + "\"", notModified, body);
+    }
+
+    // A task's comments under their tag; the body is not read when notModified accepts the tag
+    @Transactional(readOnly = true)
+    public <T> Tagged<T> readTaskComments(Long taskId, Predicate<String> notModified, Supplier<T> body) {
+        return read("\"c-" + taskCommentVersionRepository.findVersion(taskId).orElse(0L) + "\"", notModified, body);
+    }
+
+    public String categoriesETag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"g-" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static <T> Tagged<T> read(String etag, Predicate<String> notModified, Supplier<T> body) {
+        return notModified.test(etag) ? new Tagged<>(etag, null) : new Tagged<>(etag, body.get());
+    }
+
+    // Move the comment ETags of these tasks in the caller's transaction; rows are locked in id order
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void commentsChanged(Collection<Long> taskIds) {
+        for (Long taskId : new TreeSet<>(taskIds)) {
+            taskCommentVersionRepository.increment(taskId);
+        }
+    }
+
+    // A body and its ETag; the body is null when the client's copy is current
+    public static final class Tagged<T> {
+        private final String etag;
+        private final T body;
+
+        private Tagged(String etag, T body) {
+            this.etag = etag;
+            this.body = body;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public T getBody() {
+            return body;
+        }
+
+        public boolean isNotModified() {
+            return body == null;
+        }
+    }
+}
@@ -1,63 +1,214 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.TaskDTO;
+import com.example.demo.dto.TaskPageDTO;
 import com.example.demo.entity.Task;
-import com.example.demo.entity.User;
-import com.example.demo.entity.Category; // Assuming Category is an entity
+import com.example.demo.event.TaskChangedEvent;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.TaskKey;
 import com.example.demo.enums.TaskPriority;
 import com.example.demo.enums.TaskStatus;
 import com.example.demo.mapper.TaskMapper;
+import com.example.demo.util.CursorUtil;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // Foreign keys of tasks (V1__baseline_schema.sql), as they appear lower-cased in driver messages
+    private static final String USER_FOREIGN_KEY = "fk6s1ob9k4ihi75xbxe2w0ylsdh";
+    private static final String CATEGORY_FOREIGN_KEY = "fk19nbrmutuqhlidppwns1wmfro";
+
 	@Autowired
     private final TaskRepository taskRepository;
 	@Autowired
     private final UserRepository userRepository;
 	@Autowired
     private final CategoryRepository categoryRepository;
+	@Autowired
+    private final ObjectMapper objectMapper;
+	@Autowired
+    private final TaskStatisticsService taskStatisticsService;
+	@Autowired
+    private final TaskSyncService taskSyncService;
+	@Autowired
+    private final ApplicationEventPublisher eventPublisher;
+	@Autowired
+    private final CategoryRegistry categoryRegistry;
 
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository, CategoryRepository categoryRepository) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository, CategoryRepository categoryRepository,
+                       ObjectMapper objectMapper, TaskStatisticsService taskStatisticsService,
+                       TaskSyncService taskSyncService, ApplicationEventPublisher eventPublisher,
+                       CategoryRegistry categoryRegistry) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.taskStatisticsService = taskStatisticsService;
+        this.taskSyncService = taskSyncService;
+        this.eventPublisher = eventPublisher;
+        this.categoryRegistry = categoryRegistry;
     }
 
     // Create or update a task
+    @Transactional
     public Task saveTask(Task task) {
         validateTask(task);
 
-        // Fetch user and category if they're not already set
-        if (task.getUser() == null) {
+        if (task.getUser() == null || task.getUser().getId() == null) {
             throw new IllegalArgumentException("Task must be associated with a valid user ID");
         }
 
-        if (task.getCategory() == null) {
+        if (task.getCategory() == null || task.getCategory().getId() == null) {
             throw new IllegalArgumentException("Task must be associated with a valid category ID");
         }
 
-        // Validate and set the user and category entities
-        User user = userRepository.findById(task.getUser().getId())
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        task.setUser(user);
+        // Categories are validated against the in-memory registry instead of a SELECT
+        if (!categoryRegistry.exists(task.getCategory().getId())) {
+            throw new IllegalArgumentException("Category not found");
+        }
+
+        // Unloaded references: the foreign keys validate the ids when the row is written
+        task.setUser(userRepository.getReferenceById(task.getUser().getId()));
+        task.setCategory(categoryRepository.getReferenceById(task.getCategory().getId()));
+
+        applyDefaults(task);
+
+        // Remember the previous owner/status/priority so the counters can be moved
+        TaskKey before = task.getId() == null ? null : taskRepository.findKeyById(task.getId()).orElse(null);
+
+        // Stamp the task with its owner's next sync version; a previous owner gets one for the tombstone
+        Long userId = task.getUser().getId();
+        Set<Long> changedUserIds = new HashSet<>();
+        changedUserIds.add(userId);
+        if (before != null) {
+            changedUserIds.add(before.getUserId());
+        }
+        Map<Long, Long> versions = taskSyncService.nextVersions(changedUserIds);
+        task.setChangeVersion(versions.get(userId));
 
-        Category category = categoryRepository.findById(task.getCategory().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Category not found"));
-        task.setCategory(category);
+        // Save the task to the repository, flushing so a foreign key failure surfaces here
+        Task savedTask;
+        try {
+            savedTask = taskRepository.saveAndFlush(task);
+        } catch (DataIntegrityViolationException e) {
+            throw translateForeignKeyViolation(e);
+        }
+        if (before != null && !before.getUserId().equals(userId)) {
+            taskSyncService.taskRemoved(savedTask.getId(), before.getUserId(), versions.get(before.getUserId()));
+        }
+        taskStatisticsService.taskSaved(before, savedTask);
+        eventPublisher.publishEvent(TaskChangedEvent.saved(TaskMapper.toDTO(savedTask), before == null ? null : before.getUserId()));
+        return savedTask;
+    }
 
-        // Set default values if necessary
+    // Create or update many tasks in one transaction; inserts go out as JDBC batches
+    @Transactional
+    public List<Task> saveTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        if (tasks.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " tasks");
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (Task task : tasks) {
+            validateTask(task);
+            if (task.getUser() == null || task.getUser().getId() == null) {
+                throw new IllegalArgumentException("Task must be associated with a valid user ID");
+            }
+            if (task.getCategory() == null || task.getCategory().getId() == null) {
+                throw new IllegalArgumentException("Task must be associated with a valid category ID");
+            }
+            userIds.add(task.getUser().getId());
+            categoryIds.add(task.getCategory().getId());
+        }
+
+        // One IN query for users instead of a lookup per task; categories come from the registry
+        if (userRepository.findExistingIds(userIds).size() != userIds.size()) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (!categoryIds.stream().allMatch(categoryRegistry::exists)) {
+            throw new IllegalArgumentException("Category not found");
+        }
+
+        Set<Long> existingIds = tasks.stream()
+                .map(Task::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, TaskKey> before = existingIds.isEmpty() ? Map.of() : taskRepository.findKeysByIdIn(existingIds).stream()
+                .collect(Collectors.toMap(TaskKey::getId, Function.identity()));
+
+        Set<Long> changedUserIds = new HashSet<>(userIds);
+        before.values().forEach(key -> changedUserIds.add(key.getUserId()));
+        Map<Long, Long> versions = taskSyncService.nextVersions(changedUserIds);
+
+        for (Task task : tasks) {
+            task.setUser(userRepository.getReferenceById(task.getUser().getId()));
+            task.setCategory(categoryRepository.getReferenceById(task.getCategory().getId()));
+            task.setChangeVersion(versions.get(task.getUser().getId()));
+            applyDefaults(task);
+        }
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        taskStatisticsService.tasksSaved(before, savedTasks);
+        for (Task savedTask : savedTasks) {
+            TaskKey previous = before.get(savedTask.getId());
+            if (previous != null && !previous.getUserId().equals(savedTask.getUser().getId())) {
+                taskSyncService.taskRemoved(savedTask.getId(), previous.getUserId(), versions.get(previous.getUserId()));
+            }
+            eventPublisher.publishEvent(TaskChangedEvent.saved(TaskMapper.toDTO(savedTask), previous == null ? null : previous.getUserId()));
+        }
+        return savedTasks;
+    }
+
+    // Map a failed user_id/category_id foreign key back to the errors the lookups used to raise;
+    // any other violation (duplicate key, value too long, NOT NULL) is rethrown unchanged
+    private RuntimeException translateForeignKeyViolation(DataIntegrityViolationException e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(CATEGORY_FOREIGN_KEY)) {
+            return new IllegalArgumentException("Category not found");
+        }
+        if (message.contains(USER_FOREIGN_KEY)) {
+            return new IllegalArgumentException("User not found");
+        }
+        return e;
+    }
+
+    // Set default values if necessary
+    private void applyDefaults(Task task) {
         if (task.getPriority() == null) {
             task.setPriority(TaskPriority.MEDIUM); // Default priority
         }
@@ -65,9 +216,6 @@ public class TaskService {
         if (task.getStatus() == null) {
             task.setStatus(TaskStatus.TODO); // Default status
         }
-
-        // Save the task to the repository
-        return taskRepository.save(task);
     }
 
     // Validate task details before saving
@@ -78,49 +226,138 @@ public class TaskService {
     }
 
     // Find a task by ID
+    @Transactional(readOnly = true)
     public Optional<TaskDTO> findTaskById(Long id) {
         Optional<Task> task = taskRepository.findById(id);
         return task.map(TaskMapper::toDTO);
     }
 
     // Get all tasks
+    @Transactional(readOnly = true)
     public List<TaskDTO> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+        return taskRepository.findAllDTOs();
     }
 
     // Get tasks by status
+    @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByStatus(TaskStatus status) {
-        return taskRepository.findByStatus(status).stream()
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+        return taskRepository.findDTOsByStatus(status);
     }
 
     // Get tasks by priority
+    @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByPriority(TaskPriority priority) {
-        return taskRepository.findByPriority(priority).stream()
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+        return taskRepository.findDTOsByPriority(priority);
     }
 
     // Delete a task
+    @Transactional
     public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new IllegalArgumentException("Task not found");
+        TaskKey before = taskRepository.findKeyById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Task not found"));
+        removeTasks(List.of(before));
+    }
+
+    // Remove the tasks of a category that is being deleted in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteTasksInCategory(Long categoryId) {
+        removeTasks(taskRepository.findKeysByCategoryId(categoryId));
+    }
+
+    // Remove the tasks of a user that is being deleted in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteTasksOfUser(Long userId) {
+        removeTasks(taskRepository.findKeysByUserId(userId));
+    }
+
+    // The one way tasks leave the database (categories and users no longer cascade to them), so every
+    // removal moves the counters, leaves a tombstone and reaches the search index, reminders and streams
+    private void removeTasks(List<TaskKey> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> versions = taskSyncService.nextVersions(tasks.stream().map(TaskKey::getUserId).toList());
+        // Entity deletes cascade to the comments and evict only these tasks from the second-level cache
+        taskRepository.deleteAllById(tasks.stream().map(TaskKey::getId).toList());
+        taskRepository.flush();
+        taskStatisticsService.tasksDeleted(tasks);
+        for (TaskKey task : tasks) {
+            taskSyncService.taskRemoved(task.getId(), task.getUserId(), versions.get(task.getUserId()));
+            eventPublisher.publishEvent(TaskChangedEvent.deleted(task.getId(), task.getUserId()));
         }
-        taskRepository.deleteById(id);
     }
+
+    @Transactional(readOnly = true)
     public List<TaskDTO> getTasksByUserId(Long userId) {
-        return taskRepository.findByUserId(userId)
-                .stream()
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+        return taskRepository.findDTOsByUserId(userId);
     }
 
     public Optional<Task> getTaskById(Long id) {
         return taskRepository.findById(id);
     }
 
+    // Write a user's tasks as NDJSON, one row at a time, without collecting them in memory
+    @Transactional(readOnly = true)
+    public void exportTasksByUserId(Long userId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TaskDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        // Rows are projected straight into DTOs, so the persistence context stays empty during the export
+        try (Stream<TaskDTO> tasks = taskRepository.streamDTOsByUserId(userId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<TaskDTO> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    // Get a page of all tasks, starting after the given cursor
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTasksPage(String after, int limit) {
+        int size = pageSize(limit);
+        return toPage(taskRepository.findDTOsAfter(CursorUtil.decode(after), Limit.of(size + 1)), size);
+    }
+
+    // Get a page of tasks by status, starting after the given cursor
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTasksByStatusPage(TaskStatus status, String after, int limit) {
+        int size = pageSize(limit);
+        return toPage(taskRepository.findDTOsByStatusAfter(status, CursorUtil.decode(after), Limit.of(size + 1)), size);
+    }
+
+    // Get a page of tasks by priority, starting after the given cursor
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTasksByPriorityPage(TaskPriority priority, String after, int limit) {
+        int size = pageSize(limit);
+        return toPage(taskRepository.findDTOsByPriorityAfter(priority, CursorUtil.decode(after), Limit.of(size + 1)), size);
+    }
+
+    // Get a page of a user's tasks, starting after the given cursor
+    @Transactional(readOnly = true)
+    public TaskPageDTO getTasksByUserIdPage(Long userId, String after, int limit) {
+        int size = pageSize(limit);
+        return toPage(taskRepository.findDTOsByUserIdAfter(userId, CursorUtil.decode(after), Limit.of(size + 1)), size);
+    }
+
+    private int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    // One extra row is fetched to know whether another page follows
+    private TaskPageDTO toPage(List<TaskDTO> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<TaskDTO> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? CursorUtil.encode(pageRows.get(size - 1).getId()) : null;
+        return new TaskPageDTO(pageRows, next);
+    }
+
 }
 
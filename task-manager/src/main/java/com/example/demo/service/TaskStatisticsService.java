@@ -0,0 +1,163 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskStatsDTO;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.TaskStatistic;
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+import com.example.demo.repository.TaskKey;
+import com.example.demo.repository.TaskStatisticRepository;
+import com.example.demo.repository.UserRepository;
+
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user task counters by status and priority. Counters are adjusted in the same transaction
+ * as the task write, so the summary is a handful of rows regardless of how many tasks a user has.
+ * Every task removal, including those of a deleted category or user, goes through
+ * {@link TaskService}, so the counters only drift through writes made outside the application;
+ * the nightly reconcile repairs those one user at a time.
+ */
+@Service
+public class TaskStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskStatisticsService.class);
+
+    private static final int RECONCILE_PAGE_SIZE = 500;
+
+    private final TaskStatisticRepository taskStatisticRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskStatisticsService(TaskStatisticRepository taskStatisticRepository, UserRepository userRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.taskStatisticRepository = taskStatisticRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Move one task from its previous counter (null when new) to its current one
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskSaved(TaskKey before, Task after) {
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        collect(deltas, before, after);
+        apply(deltas);
+    }
+
+    // Same as taskSaved for many tasks, with one upsert per distinct counter
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tasksSaved(Map<Long, TaskKey> before, Collection<Task> after) {
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        for (Task task : after) {
+            collect(deltas, before.get(task.getId()), task);
+        }
+        apply(deltas);
+    }
+
+    // One decrement per distinct counter, however many tasks went
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tasksDeleted(Collection<? extends TaskKey> before) {
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        for (TaskKey task : before) {
+            add(deltas, task.getUserId(), task.getStatus(), task.getPriority(), -1);
+        }
+        apply(deltas);
+    }
+
+    // Drop the (by now zero) counters of a user being deleted
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userDeleted(Long userId) {
+        taskStatisticRepository.deleteByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskStatsDTO getStats(Long userId) {
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, 0L);
+        }
+
+        long total = 0;
+        for (TaskStatistic statistic : taskStatisticRepository.findByUserId(userId)) {
+            byStatus.merge(statistic.getStatus(), statistic.getTaskCount(), Long::sum);
+            byPriority.merge(statistic.getPriority(), statistic.getTaskCount(), Long::sum);
+            total += statistic.getTaskCount();
+        }
+        return new TaskStatsDTO(userId, total, byStatus, byPriority);
+    }
+
+    // Recompute the counters from the tasks table to repair drift. One node runs it (the lock is held
+    // for the whole run) and each user is its own short transaction, so only that user's counters
+    // are locked at a time and readers never see them missing
+    @Scheduled(cron = "${tasks.stats.reconcile-cron:0 30 3 * * *}")
+    @SchedulerLock(name = "task-statistics-reconcile", lockAtMostFor = "PT2H")
+    public void reconcile() {
+        long users = 0;
+        long failed = 0;
+        Long after = 0L;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(after, Limit.of(RECONCILE_PAGE_SIZE));
+            for (Long userId : userIds) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        taskStatisticRepository.deleteByUserId(userId);
+                        taskStatisticRepository.recomputeForUser(userId);
+                    });
+                    users++;
+                } catch (RuntimeException e) {
+                    // Typically a deadlock with a concurrent task write; the next run retries the user
+                    log.warn("Reconciling task statistics of user {} failed", userId, e);
+                    failed++;
+                }
+            }
+            if (!userIds.isEmpty()) {
+                after = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == RECONCILE_PAGE_SIZE);
+        log.info("Reconciled task statistics of {} users ({} failed)", users, failed);
+    }
+
+    private void collect(Map<CounterKey, Long> deltas, TaskKey before, Task after) {
+        if (before != null) {
+            add(deltas, before.getUserId(), before.getStatus(), before.getPriority(), -1);
+        }
+        add(deltas, after.getUser().getId(), after.getStatus(), after.getPriority(), 1);
+    }
+
+    private void add(Map<CounterKey, Long> deltas, Long userId, TaskStatus status, TaskPriority priority, long delta) {
+        if (userId == null || status == null || priority == null) {
+            return; // Legacy rows without defaults are not counted
+        }
+        deltas.merge(new CounterKey(userId, status, priority), delta, Long::sum);
+    }
+
+    private void apply(Map<CounterKey, Long> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                taskStatisticRepository.increment(key.userId(), key.status().name(), key.priority().name(), delta);
+            }
+        });
+    }
+
+    private record CounterKey(Long userId, TaskStatus status, TaskPriority priority) {
+    }
+}
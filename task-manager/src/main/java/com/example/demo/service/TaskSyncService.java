@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskChangesDTO;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.entity.TaskTombstone;
+import com.example.demo.exception.SyncTokenExpiredException;
+import com.example.demo.repository.TaskChange;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.TaskTombstoneRepository;
+import com.example.demo.repository.UserTaskVersionRepository;
+import com.example.demo.repository.UserVersion;
+import com.example.demo.util.CursorUtil;
+
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for clients: tasks changed past the client's token, plus tombstones for deletions.
+ * Every write transaction takes the next version of each affected user's task list (see
+ * V6__task_change_versions.sql) and stamps its tasks and tombstones with it. The version row stays
+ * locked until commit, so a user's changes become visible in version order and a keyset position
+ * over (changeVersion, id) never skips a transaction that committed late, as updatedAt could.
+ */
+@Service
+public class TaskSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSyncService.class);
+
+    private static final int MAX_LIMIT = 500;
+    private static final int TOKEN_PARTS = 5;
+    // Tokens issued before the version columns existed carried an (updatedAt, id) position
+    private static final int LEGACY_TOKEN_PARTS = 4;
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final UserTaskVersionRepository userTaskVersionRepository;
+    private final Duration tombstoneRetention;
+
+    public TaskSyncService(TaskRepository taskRepository, TaskTombstoneRepository taskTombstoneRepository,
+                           UserTaskVersionRepository userTaskVersionRepository,
+                           @Value("${tasks.sync.tombstone-retention-days:30}") long tombstoneRetentionDays) {
+        this.taskRepository = taskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.userTaskVersionRepository = userTaskVersionRepository;
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+    }
+
+    // Take the next version of each user's task list in the caller's transaction. Users are locked in
+    // id order, so two transactions touching the same users cannot deadlock on the version rows.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Long> nextVersions(Collection<Long> userIds) {
+        Set<Long> sorted = new TreeSet<>(userIds);
+        for (Long userId : sorted) {
+            userTaskVersionRepository.increment(userId);
+        }
+        return userTaskVersionRepository.findVersions(sorted).stream()
+                .collect(Collectors.toMap(UserVersion::getUserId, UserVersion::getVersion));
+    }
+
+    // Record that the task left the user's list (deleted, or moved to another owner) in the caller's transaction
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskRemoved(Long taskId, Long userId, long version) {
+        taskTombstoneRepository.save(new TaskTombstone(null, taskId, userId, LocalDateTime.now(), version));
+    }
+
+    @Transactional(readOnly = true)
+    public TaskChangesDTO getChanges(Long userId, String since, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int size = Math.min(limit, MAX_LIMIT);
+
+        long taskVersionAfter;
+        long taskIdAfter;
+        long tombstoneVersionAfter;
+        long tombstoneIdAfter;
+        List<Long> deleted;
+        boolean moreTombstones = false;
+
+        if (since == null || since.isEmpty()) {
+            // Full sync: every task, and no need to replay deletions the client never saw. The version is
+            // read before the tasks, so a deletion committed in between is replayed on the next sync.
+            taskVersionAfter = 0L;
+            taskIdAfter = 0L;
+            tombstoneVersionAfter = userTaskVersionRepository.findVersion(userId).orElse(0L);
+            tombstoneIdAfter = Long.MAX_VALUE;
+            deleted = List.of();
+        } else {
+            long[] token = decodeToken(since);
+            if (System.currentTimeMillis() - token[0] > tombstoneRetention.toMillis()) {
+                throw new SyncTokenExpiredException("Sync token is older than the tombstone retention; resync from scratch");
+            }
+            taskVersionAfter = token[1];
+            taskIdAfter = token[2];
+            tombstoneVersionAfter = token[3];
+            tombstoneIdAfter = token[4];
+
+            List<TaskTombstone> tombstones = taskTombstoneRepository
+                    .findTombstonesAfter(userId, tombstoneVersionAfter, tombstoneIdAfter, Limit.of(size + 1));
+            moreTombstones = tombstones.size() > size;
+            if (moreTombstones) {
+                tombstones = tombstones.subList(0, size);
+            }
+            if (!tombstones.isEmpty()) {
+                TaskTombstone last = tombstones.get(tombstones.size() - 1);
+                tombstoneVersionAfter = last.getChangeVersion();
+                tombstoneIdAfter = last.getId();
+            }
+            deleted = tombstones.stream()
+                    .map(TaskTombstone::getTaskId)
+                    .collect(Collectors.toList());
+        }
+
+        List<TaskChange> changes = taskRepository.findChangesAfter(userId, taskVersionAfter, taskIdAfter, Limit.of(size + 1));
+        boolean moreTasks = changes.size() > size;
+        if (moreTasks) {
+            changes = changes.subList(0, size);
+        }
+        if (!changes.isEmpty()) {
+            TaskChange last = changes.get(changes.size() - 1);
+            taskVersionAfter = last.getChangeVersion();
+            taskIdAfter = last.getTask().getId();
+        }
+        List<TaskDTO> changed = changes.stream()
+                .map(TaskChange::getTask)
+                .collect(Collectors.toList());
+
+        String next = CursorUtil.encodeAll(System.currentTimeMillis(), taskVersionAfter, taskIdAfter,
+                tombstoneVersionAfter, tombstoneIdAfter);
+        return new TaskChangesDTO(changed, deleted, next, moreTasks || moreTombstones);
+    }
+
+    // A token from before the version columns cannot be mapped to a version, so the client resyncs
+    private static long[] decodeToken(String since) {
+        try {
+            return CursorUtil.decodeAll(since, TOKEN_PARTS);
+        } catch (IllegalArgumentException e) {
+            CursorUtil.decodeAll(since, LEGACY_TOKEN_PARTS);
+            throw new SyncTokenExpiredException("Sync token predates versioned sync; resync from scratch");
+        }
+    }
+
+    // Tokens older than the retention window are rejected with 410, so dropping these is safe
+    @Scheduled(cron = "${tasks.sync.tombstone-prune-cron:0 0 4 * * *}")
+    @SchedulerLock(name = "task-tombstone-prune")
+    @Transactional
+    public void pruneTombstones() {
+        int removed = taskTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        log.info("Pruned {} task tombstones", removed);
+    }
+}
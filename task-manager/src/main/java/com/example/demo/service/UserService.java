@@ -1,13 +1,19 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.UserDTO;
+import com.example.demo.datasource.ReplicaRoutingDataSource;
 import com.example.demo.entity.User;
+import com.example.demo.event.UserDeletedEvent;
 import com.example.demo.mapper.UserMapper;
+import com.example.demo.repository.CommentRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticationCache;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,10 +31,37 @@ public class UserService {
     @Autowired
     private final PasswordEncoder passwordEncoder;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    @Autowired
+    private final AuthenticationCache authenticationCache;
+
+    @Autowired
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private final TaskService taskService;
+
+    @Autowired
+    private final TaskStatisticsService taskStatisticsService;
+
+    @Autowired
+    private final CommentRepository commentRepository;
+
+    @Autowired
+    private final ResourceVersionService resourceVersionService;
+
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                       AuthenticationCache authenticationCache, ApplicationEventPublisher eventPublisher,
+                       TaskService taskService, TaskStatisticsService taskStatisticsService,
+                       CommentRepository commentRepository, ResourceVersionService resourceVersionService) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationCache = authenticationCache;
+        this.eventPublisher = eventPublisher;
+        this.taskService = taskService;
+        this.taskStatisticsService = taskStatisticsService;
+        this.commentRepository = commentRepository;
+        this.resourceVersionService = resourceVersionService;
     }
 
     // Create or update a user and return as DTO
@@ -64,12 +97,14 @@ public class UserService {
 
 
     // Find a user by ID and return as DTO
+    @Transactional(readOnly = true)
     public Optional<UserDTO> findUserById(Long id) {
         Optional<User> user = userRepository.findById(id);
         return user.map(userMapper::toDTO);
     }
 
     // Retrieve all users and return as a list of DTOs
+    @Transactional(readOnly = true)
     public List<UserDTO> findAllUsers() {
         return userRepository.findAll()
                 .stream()
@@ -78,8 +113,17 @@ public class UserService {
     }
 
     // Delete a user
+    @Transactional
     public void deleteUser(Long id) {
+        Optional<User> user = userRepository.findById(id);
+        // Tasks go through the task delete path; the user's comments still cascade
+        taskService.deleteTasksOfUser(id);
+        taskStatisticsService.userDeleted(id);
+        // The user's comments on other users' tasks cascade with the user
+        resourceVersionService.commentsChanged(commentRepository.findTaskIdsByUserId(id));
         userRepository.deleteById(id);
+        user.ifPresent(deleted -> authenticationCache.invalidateAfterCommit(deleted.getUsername()));
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
     // Find a user by username (used in authentication and validation)
@@ -87,27 +131,38 @@ public class UserService {
         return userRepository.findByUsername(username);
     }
 
+    // Load and update in one transaction, so the save is a flush of the managed user rather than a merge
+    @Transactional
     public boolean updateUsername(Long id, String username) {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
+            String previousUsername = user.getUsername();
             user.setUsername(username);
             userRepository.save(user);
+            authenticationCache.invalidateAfterCommit(previousUsername);
             return true;
         }
         return false;
     }
 
-    public Optional<Long> authenticateUser(String username, String password) {
-        Optional<User> user = userRepository.findByUsername(username);
+    // Credentials are read from the primary, past the second-level cache: a lagging replica or this
+    // node's cached entity may still hold a password changed elsewhere. Returns the user as stored,
+    // whose username may differ in case from the one given
+    public Optional<User> authenticateUser(String username, String password) {
+        Optional<User> user;
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            user = userRepository.findCredentialsByUsername(username);
+        }
         if (user.isPresent() && passwordEncoder.matches(password, user.get().getPassword())) {
-            return Optional.of(user.get().getId());
+            return user;
         }
         return Optional.empty();
     }
+    @Transactional
     public boolean updatePassword(Long userId, String currentPassword, String newPassword) {
-        // Fetch the user by ID
-        Optional<User> userOptional = userRepository.findById(userId);
+        // Fetch the user by ID, past the second-level cache, as the current password is checked
+        Optional<User> userOptional = userRepository.findCredentialsById(userId);
 
         if (userOptional.isEmpty()) {
             throw new IllegalArgumentException("User not found.");
@@ -123,6 +178,7 @@ public class UserService {
         // Hash and update the new password
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        authenticationCache.invalidateAfterCommit(user.getUsername()); // Old password must stop working once this commits
 
         return true; // Password updated successfully
     }
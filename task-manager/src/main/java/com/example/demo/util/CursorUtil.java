@@ -0,0 +1,56 @@
+package com.example.demo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class CursorUtil {
+
+    private CursorUtil() {
+    }
+
+    // Encode the last seen id as an opaque cursor
+    public static String encode(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return encodeAll(id);
+    }
+
+    // Decode a cursor back to the last seen id (0 when starting from the beginning)
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        return decodeAll(cursor, 1)[0];
+    }
+
+    // Encode several positions (e.g. timestamp and id) as one opaque cursor
+    public static String encodeAll(long... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                builder.append(':');
+            }
+            builder.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Decode a cursor produced by encodeAll with the same number of parts
+    public static long[] decodeAll(String cursor, int count) {
+        try {
+            String[] values = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (values.length != count) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            long[] parts = new long[count];
+            for (int i = 0; i < count; i++) {
+                parts[i] = Long.parseLong(values[i]);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
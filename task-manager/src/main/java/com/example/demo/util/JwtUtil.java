@@ -1,16 +1,57 @@
 package com.example.demo.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
 
-    private static final String SECRET_KEY = "secret";  // Use a stronger secret key in production
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 hours
+    private static final int MIN_SECRET_BYTES = 64; // HS512 key size
+
+    // The key and parser are immutable and thread-safe, so they are derived once
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    // Digests of recently verified tokens, kept until the token itself expires
+    private final Map<String, TokenClaims> validatedTokens = new ConcurrentHashMap<>();
+    private final int validationCacheSize;
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    public JwtUtil(@Value("${jwt.secret}") String secretKey,
+                   @Value("${jwt.validation-cache.max-entries:10000}") int validationCacheSize) {
+        // Refuse to start rather than sign with a missing, short or well-known key
+        byte[] secret = secretKey == null ? new byte[0] : secretKey.getBytes(StandardCharsets.UTF_8);
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("jwt.secret (JWT_SECRET) must be set to at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        this.signingKey = Keys.hmacShaKeyFor(secret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.validationCacheSize = validationCacheSize;
+    }
 
     // Generate a JWT token
     public String generateToken(String username) {
@@ -18,17 +59,39 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SignatureAlgorithm.HS512, SECRET_KEY)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    // Verify the token once and return subject, issued-at and expiry; throws JwtException when invalid or expired
+    public TokenClaims validateToken(String token) {
+        if (validationCacheSize <= 0) {
+            return parse(token);
+        }
+
+        String digest = digest(token);
+        TokenClaims cached = validatedTokens.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            validatedTokens.remove(digest);
+        }
+
+        TokenClaims claims = parse(token);
+        if (validatedTokens.size() >= validationCacheSize) {
+            validatedTokens.values().removeIf(TokenClaims::isExpired);
+            if (validatedTokens.size() >= validationCacheSize) {
+                validatedTokens.clear();
+            }
+        }
+        validatedTokens.put(digest, claims);
+        return claims;
+    }
+
     // Get username from token
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return validateToken(token).getSubject();
     }
 
     // Check if the token is expired
@@ -38,10 +101,19 @@ public class JwtUtil {
 
     // Get the expiration date from token
     public Date getExpirationDateFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+        return validateToken(token).getExpiration();
+    }
+
+    private TokenClaims parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getSubject() == null) {
+            throw new JwtException("Token has no subject");
+        }
+        return new TokenClaims(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration());
+    }
+
+    private String digest(String token) {
+        byte[] hash = digests.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
     }
 }
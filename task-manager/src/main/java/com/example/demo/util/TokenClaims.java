@@ -0,0 +1,33 @@
+package com.example.demo.util;
+
+import java.util.Date;
+
+// Claims of a token whose signature has already been verified
+public final class TokenClaims {
+
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    public TokenClaims(String subject, Date issuedAt, Date expiration) {
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() < System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,24 @@
+-- Tables the per-user task counters and delta sync added while the schema was still generated by
+-- ddl-auto=update. Databases baselined at V1 predate them, so they are created here for every database.
+
+create table task_statistics (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    status enum ('COMPLETED','IN_PROGRESS','TODO') not null,
+    priority enum ('HIGH','LOW','MEDIUM') not null,
+    task_count bigint not null,
+    primary key (id),
+    constraint uk_task_statistics_key unique (user_id, status, priority)
+) engine=InnoDB;
+
+create table task_tombstones (
+    id bigint not null auto_increment,
+    task_id bigint not null,
+    user_id bigint not null,
+    deleted_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- The first delta sync keysets; V6 replaces both with change_version ones
+create index idx_tasks_user_updated on tasks (user_id, updated_at, id);
+create index idx_task_tombstones_user on task_tombstones (user_id, id);
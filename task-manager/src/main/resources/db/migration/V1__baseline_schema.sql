@@ -0,0 +1,56 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update from the four original
+-- entities, ids included. Databases created that way are baselined at this version
+-- (spring.flyway.baseline-on-migrate) instead of running it, so it must stay exactly that schema;
+-- every later table, sequence and index belongs in a migration after it.
+
+create table users (
+    id bigint not null auto_increment,
+    username varchar(255) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table categories (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    color varchar(255),
+    icon varchar(255),
+    created_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table tasks (
+    id bigint not null auto_increment,
+    title varchar(255) not null,
+    description TEXT,
+    priority enum ('HIGH','LOW','MEDIUM'),
+    status enum ('COMPLETED','IN_PROGRESS','TODO'),
+    due_date datetime(6),
+    created_at datetime(6),
+    updated_at datetime(6),
+    user_id bigint not null,
+    category_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table comments (
+    id bigint not null auto_increment,
+    content TEXT not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    user_id bigint not null,
+    task_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table tasks add constraint FK6s1ob9k4ihi75xbxe2w0ylsdh foreign key (user_id) references users (id);
+alter table tasks add constraint FK19nbrmutuqhlidppwns1wmfro foreign key (category_id) references categories (id);
+alter table comments add constraint FK8omq0tc18jd43bu5tjh6jvraq foreign key (user_id) references users (id);
+alter table comments add constraint FKi7pp0331nbiwd2844kg78kfwb foreign key (task_id) references tasks (id);
+
@@ -0,0 +1,25 @@
+-- Composite indexes for the TaskRepository / CommentRepository lookups. Each ends in id so the
+-- keyset pages (... and id > ? order by id) read the index in order instead of sorting.
+-- findByIdAndUserId and the id-only lookups use the primary key. QueryPlanTest runs EXPLAIN on
+-- every repository query and fails on a full table scan.
+
+-- findByStatusAndUserId
+create index idx_tasks_user_status on tasks (user_id, status, id);
+-- findByPriorityAndUserId
+create index idx_tasks_user_priority on tasks (user_id, priority, id);
+-- findByUserId, findDTOsByUserId(After), streamDTOsByUserId
+create index idx_tasks_user on tasks (user_id, id);
+-- findDTOsByStatus(After)
+create index idx_tasks_status on tasks (status, id);
+-- findDTOsByPriority(After)
+create index idx_tasks_priority on tasks (priority, id);
+-- findOpenDueDatesAfter
+create index idx_tasks_due_date on tasks (due_date, status);
+
+-- findByTaskId
+create index idx_comments_task on comments (task_id, id);
+-- Comments of a deleted user
+create index idx_comments_user on comments (user_id, id);
+
+-- deleteOlderThan (tombstone pruning)
+create index idx_task_tombstones_deleted_at on task_tombstones (deleted_at);
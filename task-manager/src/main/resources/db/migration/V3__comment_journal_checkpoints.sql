@@ -0,0 +1,9 @@
+-- Write-behind comment creation (comments.write-behind.enabled): per journal, the last record already
+-- stored in comments. It advances in the same transaction as the comments, so replaying the journal
+-- after a crash starts exactly after what was committed.
+
+create table comment_journal_checkpoints (
+    journal varchar(100) not null,
+    last_sequence bigint not null,
+    primary key (journal)
+) engine=InnoDB;
@@ -0,0 +1,13 @@
+-- Task and comment ids moved from auto_increment to Hibernate's pooled generators, which on MySQL keep
+-- next_val in the task_seq and comment_seq tables. A database generated by ddl-auto=update after that
+-- change already has them, possibly still holding 1 while tasks and comments use higher ids; V1 and
+-- older databases do not. Create and seed them where needed and move next_val past the largest id,
+-- with one allocation block (50) to spare, so the first pooled ids cannot collide with existing rows.
+
+create table if not exists task_seq (next_val bigint) engine=InnoDB;
+insert into task_seq (next_val) select 1 from dual where not exists (select * from task_seq);
+update task_seq set next_val = greatest(next_val, (select coalesce(max(id), 0) + 51 from tasks));
+
+create table if not exists comment_seq (next_val bigint) engine=InnoDB;
+insert into comment_seq (next_val) select 1 from dual where not exists (select * from comment_seq);
+update comment_seq set next_val = greatest(next_val, (select coalesce(max(id), 0) + 51 from comments));
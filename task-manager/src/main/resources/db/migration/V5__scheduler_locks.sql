@@ -0,0 +1,10 @@
+-- ShedLock: a scheduled job that must not run on several nodes at once (the task statistics reconcile)
+-- holds its row here until lock_until; other nodes skip that run.
+
+create table shedlock (
+    name varchar(64) not null,
+    lock_until timestamp(3) not null,
+    locked_at timestamp(3) not null,
+    locked_by varchar(255) not null,
+    primary key (name)
+) engine=InnoDB;
@@ -0,0 +1,22 @@
+-- Delta sync (GET /tasks/user/{userId}/changes) orders changes by a per-user version instead of the
+-- application clock. Every transaction that changes a user's tasks increments the user's row in
+-- user_task_versions first and stamps the tasks and tombstones it writes with the new value. The row
+-- lock is held until commit, so a user's versions become visible in the order they were assigned and a
+-- sync token never skips a commit. Rows written before this migration carry version 0.
+
+create table user_task_versions (
+    user_id bigint not null,
+    version bigint not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+alter table tasks add column change_version bigint not null default 0;
+alter table task_tombstones add column change_version bigint not null default 0;
+
+-- findChangesAfter replaces the (updated_at, id) keyset
+create index idx_tasks_user_change on tasks (user_id, change_version, id);
+alter table tasks drop index idx_tasks_user_updated;
+
+-- findTombstonesAfter
+create index idx_task_tombstones_user_change on task_tombstones (user_id, change_version, id);
+alter table task_tombstones drop index idx_task_tombstones_user;
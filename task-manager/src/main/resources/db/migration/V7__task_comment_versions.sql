@@ -0,0 +1,10 @@
+-- Version of each task's comment list, behind the ETag of GET /comments/task/{taskId}. Every
+-- transaction that adds, edits or removes comments increments the rows of the tasks involved, so
+-- every node answers conditional requests from the same value. Rows go with their task.
+
+create table task_comment_versions (
+    task_id bigint not null,
+    version bigint not null,
+    primary key (task_id),
+    constraint fk_task_comment_versions_task foreign key (task_id) references tasks (id) on delete cascade
+) engine=InnoDB;
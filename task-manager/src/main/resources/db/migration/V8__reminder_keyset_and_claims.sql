@@ -0,0 +1,20 @@
+-- findOpenDueDatesAfter pages through open tasks in (due_date, id) order, so each page starts where
+-- the last one ended instead of re-reading every earlier due date
+create index idx_tasks_due_date_id on tasks (due_date, id);
+drop index idx_tasks_due_date on tasks;
+
+-- One row per reminder sent. Every node keeps the same timing wheel; the node whose insert lands
+-- first sends the reminder and the others skip it. Rows go with their task, and pruning removes
+-- them once the due date has passed, since no reminder is scheduled for a past due date.
+create table fired_reminders (
+    id bigint not null auto_increment,
+    task_id bigint not null,
+    due_date datetime(6) not null,
+    offset_seconds bigint not null,
+    fired_at datetime(6) not null,
+    primary key (id),
+    constraint uk_fired_reminders unique (task_id, due_date, offset_seconds),
+    constraint fk_fired_reminders_task foreign key (task_id) references tasks (id) on delete cascade
+) engine=InnoDB;
+
+create index idx_fired_reminders_due_date on fired_reminders (due_date);
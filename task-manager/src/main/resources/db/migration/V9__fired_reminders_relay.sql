@@ -0,0 +1,3 @@
+-- findFiredSince: every node reads back the reminders claimed since its last read, in fired_at order,
+-- and pushes them to its own stream connections
+create index idx_fired_reminders_fired_at on fired_reminders (fired_at, id);
@@ -0,0 +1,72 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Microseconds to serialize and parse task lists the size of typical list responses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<TaskDTO> tasks;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Configured the way Spring Boot configures the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, TaskDTO.class));
+        LocalDateTime now = LocalDateTime.now();
+        tasks = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            tasks.add(new TaskDTO(id, "Task " + id, "Description of task " + id, TaskPriority.MEDIUM, TaskStatus.TODO,
+                    now.plusDays(id), now, now, 7L, 3L));
+        }
+        json = objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeListPrebuiltWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public TaskDTO[] deserializeList() throws Exception {
+        return objectMapper.readValue(json, TaskDTO[].class);
+    }
+}
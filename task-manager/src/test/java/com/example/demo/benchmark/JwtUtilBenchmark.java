@@ -0,0 +1,74 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Validations per second: the old two-parse path against the single-parse and cached paths
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "benchmark-signing-secret-benchmark-signing-secret-0123456789abcdef";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(SECRET, 0);
+        cached = new JwtUtil(SECRET, 10_000);
+        token = uncached.generateToken("benchmark-user");
+    }
+
+    // Previous behaviour: subject and expiry each derive the key, build a parser and verify the signature
+    @Benchmark
+    public void legacySubjectAndExpiry(Blackhole blackhole) {
+        blackhole.consume(Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject());
+        blackhole.consume(Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getExpiration());
+    }
+
+    @Benchmark
+    public Object validateSinglePass() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public Object validateCached() {
+        return cached.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateToken("benchmark-user");
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.CategoryDTO;
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.dto.UserDTO;
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Comment;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+import com.example.demo.mapper.CategoryMapper;
+import com.example.demo.mapper.CommentMapper;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.mapper.UserMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Nanoseconds per call of the entity/DTO mappers, single objects and lists
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10", "1000"})
+    private int listSize;
+
+    private final UserMapper userMapper = new UserMapper();
+    private final CategoryMapper categoryMapper = new CategoryMapper();
+
+    private Task task;
+    private TaskDTO taskDTO;
+    private List<Task> tasks;
+    private List<TaskDTO> taskDTOs;
+    private Comment comment;
+    private CommentDTO commentDTO;
+    private List<Comment> comments;
+    private User user;
+    private UserDTO userDTO;
+    private Category category;
+    private CategoryDTO categoryDTO;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(7L, "benchmark-user", "bench@example.com", "$2a$10$hash", "Bench", "User", now, null, null);
+        category = new Category(3L, "Work", "#336699", "briefcase", now, null);
+        tasks = new ArrayList<>(listSize);
+        comments = new ArrayList<>(listSize);
+        for (long id = 1; id <= listSize; id++) {
+            Task listTask = new Task(id, "Task " + id, "Description of task " + id, TaskPriority.MEDIUM, TaskStatus.TODO,
+                    now.plusDays(id), now, now, user, category, null);
+            tasks.add(listTask);
+            comments.add(new Comment(id, "Comment " + id, now, now, user, listTask));
+        }
+        task = tasks.get(0);
+        comment = comments.get(0);
+        taskDTOs = TaskMapper.toDTOList(tasks);
+        taskDTO = taskDTOs.get(0);
+        commentDTO = CommentMapper.toDTO(comment);
+        userDTO = userMapper.toDTO(user);
+        categoryDTO = categoryMapper.toDTO(category);
+    }
+
+    @Benchmark
+    public TaskDTO taskToDTO() {
+        return TaskMapper.toDTO(task);
+    }
+
+    @Benchmark
+    public Task taskToEntity() {
+        return TaskMapper.toEntity(taskDTO);
+    }
+
+    @Benchmark
+    public List<TaskDTO> taskToDTOList() {
+        return TaskMapper.toDTOList(tasks);
+    }
+
+    @Benchmark
+    public List<Task> taskToEntityList() {
+        return TaskMapper.toEntityList(taskDTOs);
+    }
+
+    @Benchmark
+    public CommentDTO commentToDTO() {
+        return CommentMapper.toDTO(comment);
+    }
+
+    @Benchmark
+    public Comment commentToEntity() {
+        return CommentMapper.toEntity(commentDTO);
+    }
+
+    @Benchmark
+    public List<CommentDTO> commentToDTOList() {
+        return CommentMapper.toDTOList(comments);
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User userToEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    public CategoryDTO categoryToDTO() {
+        return categoryMapper.toDTO(category);
+    }
+
+    @Benchmark
+    public Category categoryToEntity() {
+        return categoryMapper.toEntity(categoryDTO);
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.demo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running server: throughput and latency percentiles of
+ * GET /tasks/user/{userId} and POST /tasks. To compare request modes, run it once against a server
+ * started normally and once against one started with --spring.threads.virtual.enabled=true
+ * (Java 21), same pool size:
+ *
+ *   mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.example.demo.benchmark.RequestModeBenchmark \
+ *       -Dexec.args="http://localhost:8080 400 30 50"
+ *
+ * Arguments: base URL, concurrent clients (default 200), seconds per endpoint (default 30), users
+ * (default 50). Fresh users and a category are created and each user is seeded with tasks; every
+ * request picks a user at random and carries its bearer token. Writes of one user take turns on its
+ * sync version row, so a single user would measure that lock rather than the request mode. Set-up
+ * stops at the first failed request, so a server that rejects them is not measured as fast errors.
+ */
+public class RequestModeBenchmark {
+
+    private static final int SEED_TASKS_PER_USER = 20;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(8))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    private final List<Account> accounts = new ArrayList<>();
+    private long categoryId;
+
+    private record Account(long userId, String token) {
+    }
+
+    public RequestModeBenchmark(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int users = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        RequestModeBenchmark benchmark = new RequestModeBenchmark(baseUrl);
+        benchmark.setUp(users);
+
+        // Short warm-up so JIT and pool start-up do not land in the measurement
+        benchmark.run("warm-up", clients, Math.min(5, seconds), benchmark::getUserTasks);
+        benchmark.run("GET /tasks/user/{userId}", clients, seconds, benchmark::getUserTasks).print();
+        benchmark.run("POST /tasks", clients, seconds, benchmark::createTask).print();
+        System.exit(0);
+    }
+
+    private void setUp(int users) throws Exception {
+        String run = "bench-" + UUID.randomUUID().toString().substring(0, 8);
+        String password = "bench-password";
+        for (int i = 0; i < users; i++) {
+            String username = run + "-" + i;
+            send(post("/users/register", Map.of("username", username, "email", username + "@example.com", "password", password), null));
+            JsonNode login = objectMapper.readTree(send(post("/users/login", Map.of("username", username, "password", password), null)));
+            accounts.add(new Account(login.get("userId").asLong(), login.get("token").asText()));
+        }
+        JsonNode category = objectMapper.readTree(send(post("/categories",
+                Map.of("name", "Benchmark " + run, "color", "#336699", "icon", "bench"), accounts.get(0))));
+        categoryId = category.get("id").asLong();
+        for (Account account : accounts) {
+            for (int i = 0; i < SEED_TASKS_PER_USER; i++) {
+                int status = createTask(account);
+                if (status >= 300) {
+                    throw new IllegalStateException("POST /tasks returned " + status);
+                }
+            }
+        }
+    }
+
+    private Account randomAccount() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+    }
+
+    private int getUserTasks() throws Exception {
+        Account account = randomAccount();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/user/" + account.userId()))
+                .header("Authorization", "Bearer " + account.token())
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int createTask() throws Exception {
+        return createTask(randomAccount());
+    }
+
+    private int createTask(Account account) throws Exception {
+        Map<String, Object> task = Map.of(
+                "title", "Benchmark task " + ThreadLocalRandom.current().nextInt(),
+                "description", "Created by the request-mode benchmark",
+                "priority", "MEDIUM",
+                "status", "TODO",
+                "userId", account.userId(),
+                "categoryId", categoryId);
+        return client.send(post("/tasks", task, account), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Authenticated as the account unless it is null
+    private HttpRequest post(String path, Object body, Account account) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (account != null) {
+            builder.header("Authorization", "Bearer " + account.token());
+        }
+        return builder.build();
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    // Each client issues its next request as soon as the previous one answers
+    private Result run(String name, int clients, int seconds, Call call) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(workers.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        if (call.execute() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+
+        long[] all = new long[0];
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + latencies.length);
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+        }
+        workers.shutdown();
+        Arrays.sort(all);
+        return new Result(name, clients, seconds, all, errors.get());
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        int execute() throws Exception;
+    }
+
+    private record Result(String name, int clients, int seconds, long[] sortedLatencies, long errors) {
+
+        void print() {
+            System.out.printf("%-26s clients=%d requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                    name, clients, sortedLatencies.length, errors, (double) sortedLatencies.length / seconds,
+                    percentile(0.50), percentile(0.99), percentile(1.0));
+        }
+
+        private double percentile(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
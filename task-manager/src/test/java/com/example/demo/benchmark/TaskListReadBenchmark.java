@@ -0,0 +1,72 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.TaskManagerApplication;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.loadtest.DatasetGenerator;
+import com.example.demo.loadtest.DatasetSize;
+import com.example.demo.mapper.TaskMapper;
+import com.example.demo.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Milliseconds to read a 50k-task list as entities mapped with TaskMapper (the path task lists
+ * used before) and as the TaskDTO constructor projection they use now, against the application
+ * on embedded H2. The benchmark profile's GC profiler adds the bytes allocated per list:
+ *
+ *   mvn -Pbenchmark test -DskipTests -Dbenchmark.include=TaskListRead
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TaskListReadBenchmark {
+
+    private static final DatasetSize SIZE = new DatasetSize(500, 20, 50_000, 50_000);
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .profiles("loadtest")
+                .properties("spring.datasource.url=jdbc:h2:mem:task-list-read;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run();
+        new DatasetGenerator(context.getBean(JdbcTemplate.class)).generate(SIZE);
+        taskRepository = context.getBean(TaskRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> entities() {
+        return TaskMapper.toDTOList(taskRepository.findAll());
+    }
+
+    @Benchmark
+    public List<TaskDTO> projection() {
+        return taskRepository.findAllDTOs();
+    }
+}
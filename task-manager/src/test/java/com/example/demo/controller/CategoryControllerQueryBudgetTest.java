@@ -0,0 +1,52 @@
+package com.example.demo.controller;
+
+import com.example.demo.support.QueryBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CategoryControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Test
+    void createCategory() throws Exception {
+        queryBudget.atMost(2, () -> mockMvc.perform(post("/categories").with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Errands\",\"color\":\"#00ff00\",\"icon\":\"cart\"}"))
+                .andExpect(status().isCreated()));
+    }
+
+    // Served from the in-memory registry once loaded
+    @Test
+    void getAllCategories() throws Exception {
+        mockMvc.perform(get("/categories").with(asUser(1))).andExpect(status().isOk());
+        queryBudget.atMost(0, () -> mockMvc.perform(get("/categories").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getCategoryById() throws Exception {
+        mockMvc.perform(get("/categories").with(asUser(1))).andExpect(status().isOk());
+        queryBudget.atMost(0, () -> mockMvc.perform(get("/categories/1").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateCategory() throws Exception {
+        queryBudget.atMost(3, () -> mockMvc.perform(put("/categories/2").with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Home\",\"color\":\"#0000ff\",\"icon\":\"house\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteCategory() throws Exception {
+        jdbcTemplate.update("insert into categories (id, name, color, icon, created_at) values (100, 'Unused', '#000000', 'x', now())");
+        queryBudget.atMost(7, () -> mockMvc.perform(delete("/categories/100").with(asUser(1)))
+                .andExpect(status().isNoContent()));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.controller;
+
+import com.example.demo.support.QueryBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CommentControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Test
+    void createComment() throws Exception {
+        queryBudget.atMost(4, () -> mockMvc.perform(post("/comments").with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"Looks good\",\"userId\":1,\"taskId\":1}"))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void createCommentsInBatch() throws Exception {
+        // Includes one comment list version upsert per task
+        queryBudget.atMost(6, () -> mockMvc.perform(post("/comments/batch").with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"content\":\"First\",\"userId\":1,\"taskId\":1},"
+                                + "{\"content\":\"Second\",\"userId\":2,\"taskId\":2},"
+                                + "{\"content\":\"Third\",\"userId\":3,\"taskId\":3}]"))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void getCommentsByTaskId() throws Exception {
+        // The ETag's version row, then the comments
+        queryBudget.atMost(2, () -> mockMvc.perform(get("/comments/task/2").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateComment() throws Exception {
+        // Includes the task's comment list version upsert
+        queryBudget.atMost(4, () -> mockMvc.perform(put("/comments/7").with(asUser(3))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"Edited\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteComment() throws Exception {
+        // Includes the task's comment list version upsert
+        queryBudget.atMost(4, () -> mockMvc.perform(delete("/comments/39").with(asUser(3)))
+                .andExpect(status().isNoContent()));
+    }
+}
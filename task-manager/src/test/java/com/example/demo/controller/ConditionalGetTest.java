@@ -0,0 +1,133 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.CommentService;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the ETags of the polling endpoints move with the data, including changes this node
+ * did not make (written here straight to the version tables), and stay put otherwise. Runs on an H2
+ * database of its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + ConditionalGetTest.URL)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    static final String URL = "jdbc:h2:mem:conditional-get;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // A mock principal, so the requests make no authentication queries
+    private static final RequestPostProcessor READER = SecurityMockMvcRequestPostProcessors.user("etag-reader").roles("USER");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void createCategory() {
+        categoryId = categoryService.createCategory("Polled", "#000000", "x").getId();
+    }
+
+    @Test
+    void userTasksETagFollowsTheUsersTaskListVersion() throws Exception {
+        User user = user("etag-tasks");
+        taskService.saveTask(task(user, "Polled"));
+        String path = "/tasks/user/" + user.getId();
+
+        String etag = etag(path);
+        mockMvc.perform(get(path).with(READER).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        jdbcTemplate.update("update user_task_versions set version = version + 1 where user_id = ?", user.getId());
+        mockMvc.perform(get(path).with(READER).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void taskCommentsETagMovesWhenACommentIsAdded() throws Exception {
+        User user = user("etag-comments");
+        Task task = taskService.saveTask(task(user, "Discussed"));
+        String path = "/comments/task/" + task.getId();
+
+        String before = etag(path);
+        commentService.saveComment(new CommentDTO(null, "First", null, null, user.getId(), task.getId()));
+        String after = etag(path);
+
+        assertNotEquals(before, after);
+        mockMvc.perform(get(path).with(READER).header(HttpHeaders.IF_NONE_MATCH, after))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void categoriesETagMovesWhenACategoryIsAdded() throws Exception {
+        String before = etag("/categories");
+        mockMvc.perform(get("/categories").with(READER).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+
+        categoryService.createCategory("Tagged", "#abcdef", "t");
+
+        mockMvc.perform(get("/categories").with(READER).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(get(path).with(READER))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private User user(String username) {
+        return userRepository.save(new User.Builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Task task(User user, String title) {
+        return new Task.Builder()
+                .title(title)
+                .user(new User(user.getId()))
+                .category(new Category(categoryId))
+                .build();
+    }
+}
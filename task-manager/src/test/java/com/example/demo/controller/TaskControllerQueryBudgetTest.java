@@ -0,0 +1,142 @@
+package com.example.demo.controller;
+
+import com.example.demo.support.QueryBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TaskControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Test
+    void createTask() throws Exception {
+        // Includes the owner's sync version: its upsert and the read of the new value
+        queryBudget.atMost(4, () -> mockMvc.perform(post("/tasks").with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"New task\",\"priority\":\"HIGH\",\"status\":\"TODO\",\"userId\":1,\"categoryId\":1}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void saveTasksInBatch() throws Exception {
+        // Includes one sync version upsert per owner and a single read of the new values
+        queryBudget.atMost(10, () -> mockMvc.perform(post("/tasks/batch").with(asUser(1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Batch 1\",\"userId\":1,\"categoryId\":1},"
+                                + "{\"title\":\"Batch 2\",\"userId\":2,\"categoryId\":2},"
+                                + "{\"title\":\"Batch 3\",\"userId\":3,\"categoryId\":3}]"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getAllTasks() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getAllTasksPage() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks").param("limit", "10").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTasksByStatus() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/status/TODO").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTasksByStatusPage() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/status/TODO").param("limit", "5").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTasksByPriority() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/priority/MEDIUM").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTasksByPriorityPage() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/priority/MEDIUM").param("limit", "5").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void searchTasks() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/search").param("q", "review").param("userId", "1").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTaskById() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/5").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updateTask() throws Exception {
+        // Includes the owner's sync version: its upsert and the read of the new value
+        queryBudget.atMost(7, () -> mockMvc.perform(put("/tasks/6").with(asUser(2))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\",\"priority\":\"LOW\",\"status\":\"IN_PROGRESS\",\"userId\":2,\"categoryId\":2}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteTask() throws Exception {
+        // Includes the owner's sync version: its upsert and the read of the new value
+        queryBudget.atMost(9, () -> mockMvc.perform(delete("/tasks/40").with(asUser(4)))
+                .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void getTasksByUserId() throws Exception {
+        // The ETag's version row, then the tasks
+        queryBudget.atMost(2, () -> mockMvc.perform(get("/tasks/user/1").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTasksByUserIdPage() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/user/1").param("limit", "5").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTaskStatsByUserId() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/tasks/user/1/stats").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getTaskChanges() throws Exception {
+        queryBudget.atMost(2, () -> mockMvc.perform(get("/tasks/user/1/changes").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void exportTasksByUserId() throws Exception {
+        queryBudget.atMost(1, () -> {
+            MvcResult result = mockMvc.perform(get("/tasks/user/1/export").with(asUser(1)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        });
+    }
+
+    @Test
+    void streamTaskEvents() throws Exception {
+        queryBudget.atMost(0, () -> mockMvc.perform(get("/tasks/user/1/events").with(asUser(1)))
+                .andExpect(request().asyncStarted()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.controller;
+
+import com.example.demo.loadtest.DatasetGenerator;
+import com.example.demo.support.QueryBudgetTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerQueryBudgetTest extends QueryBudgetTest {
+
+    @Test
+    void registerUser() throws Exception {
+        queryBudget.atMost(2, () -> mockMvc.perform(post("/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"registered\",\"email\":\"registered@example.com\",\"password\":\"secret\"}"))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void createUser() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(post("/users").with(asUser(1)).with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"created\",\"email\":\"created@example.com\",\"password\":\"secret\"}"))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void login() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + DatasetGenerator.username(1) + "\",\"password\":\""
+                                + DatasetGenerator.PASSWORD + "\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/users/1").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void getAllUsers() throws Exception {
+        queryBudget.atMost(1, () -> mockMvc.perform(get("/users").with(asUser(1)))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        jdbcTemplate.update("insert into users (id, username, email, password, created_at) "
+                + "values (100, 'leaving', 'leaving@example.com', 'x', now())");
+        // The user, its task keys, its counters, the tasks it commented on, its comments (cascaded) and the delete
+        queryBudget.atMost(6, () -> mockMvc.perform(delete("/users/100").with(asUser(1)).with(csrf()))
+                .andExpect(status().isNoContent()));
+    }
+
+    @Test
+    void updateUsername() throws Exception {
+        queryBudget.atMost(2, () -> mockMvc.perform(put("/users/username/2").with(asUser(2))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"renamed-user\"}"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void updatePassword() throws Exception {
+        queryBudget.atMost(2, () -> mockMvc.perform(put("/users/password/3").with(asUser(3))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"" + DatasetGenerator.PASSWORD + "\",\"newPassword\":\"changed\"}"))
+                .andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.datasource;
+
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.loadtest.DatasetGenerator;
+import com.example.demo.loadtest.DatasetSize;
+import com.example.demo.service.TaskService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs with a pool of two connections on an H2 database of its own. One is held by another
+ * transaction and the batch save takes the other, so the task_seq refill its inserts need can only
+ * get a connection from the reserve; from the pool it would wait out connection-timeout and fail.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + IsolatedWorkConnectionProviderTest.URL,
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.minimum-idle=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@ActiveProfiles("test")
+class IsolatedWorkConnectionProviderTest {
+
+    static final String URL = "jdbc:h2:mem:isolated-work;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // One user and one category to own the tasks
+    @BeforeAll
+    static void seed() {
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        new DatasetGenerator(new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""))).generate(new DatasetSize(1, 1, 1, 0));
+    }
+
+    @Test
+    void idBlockIsRefilledWhileEveryPooledConnectionIsHeld() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("select count(*) from tasks", Long.class);
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        holding.await();
+        try {
+            // More tasks than one block of 50 ids
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                tasks.add(new Task.Builder()
+                        .title("Refill " + i)
+                        .user(new User(1L))
+                        .category(new Category(1L))
+                        .build());
+            }
+            assertEquals(60, taskService.saveTasks(tasks).size());
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+        assertEquals(61, jdbcTemplate.queryForObject("select count(*) from tasks", Long.class));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demo.datasource;
+
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.CustomUserDetailsService;
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.TaskService;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two H2 databases stand in for the primary and a replica. The same task row has a different title
+ * in each, so every read shows which database served it. The second-level cache is off, as it would
+ * answer from whichever copy it saw first.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingDataSourceTest.PRIMARY_URL,
+        "datasource.replica.urls=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String USERNAME = "routing-user";
+    private static final long TASK_ID = 1L;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    // Replication is not simulated: the replica only gets the schema the primary gets from Flyway
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void seed() {
+        DriverManagerDataSource primary = new DriverManagerDataSource(PRIMARY_URL, "sa", "");
+        DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+        insertTask(new JdbcTemplate(primary), "on primary");
+        insertTask(new JdbcTemplate(replica), "on replica");
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals(List.of("on replica"), titles(taskService.getAllTasks()));
+        assertEquals("on replica", taskService.findTaskById(TASK_ID).orElseThrow().getTitle());
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() {
+        String title = transactionTemplate.execute(status -> taskRepository.findById(TASK_ID).orElseThrow().getTitle());
+        assertEquals("on primary", title);
+    }
+
+    @Test
+    void readsInsideUsePrimaryScopeUseThePrimary() {
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.usePrimary()) {
+            assertEquals(List.of("on primary"), titles(taskService.getAllTasks()));
+        }
+        assertEquals(List.of("on replica"), titles(taskService.getAllTasks()));
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(USERNAME, null, "ROLE_USER"));
+        assertEquals(List.of("on replica"), titles(taskService.getAllTasks()));
+
+        readYourWritesTracker.recordWrite(USERNAME);
+        assertEquals(List.of("on primary"), titles(taskService.getAllTasks()));
+
+        // Other users are unaffected
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("someone-else", null, "ROLE_USER"));
+        assertEquals(List.of("on replica"), titles(taskService.getAllTasks()));
+    }
+
+    @Test
+    void windowCookieFromAnotherNodeSendsReadsToThePrimary() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(USERNAME, null, "ROLE_USER"));
+        ReadYourWritesTracker otherNode = new ReadYourWritesTracker(5000, secret);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(readYourWritesTracker);
+
+        assertEquals(List.of("on primary"), titlesThroughFilter(filter, otherNode.issueToken(USERNAME)));
+        // Tampered, issued for someone else or signed with another key
+        String token = otherNode.issueToken(USERNAME);
+        assertEquals(List.of("on replica"), titlesThroughFilter(filter, (Long.parseLong(token.substring(0, token.indexOf('.'))) + 60_000)
+                + token.substring(token.indexOf('.'))));
+        assertEquals(List.of("on replica"), titlesThroughFilter(filter, otherNode.issueToken("someone-else")));
+        assertEquals(List.of("on replica"), titlesThroughFilter(filter,
+                new ReadYourWritesTracker(5000, secret + "-other").issueToken(USERNAME)));
+    }
+
+    @Test
+    void writesSendTheWindowCookie() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("cookie-writer", null, "ROLE_USER"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new ReadYourWritesFilter(readYourWritesTracker).doFilter(new MockHttpServletRequest("POST", "/tasks"), response,
+                new MockFilterChain());
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(readYourWritesTracker.isWithinWindow("cookie-writer", cookie.getValue()));
+    }
+
+    @Test
+    void credentialsAreReadFromThePrimary() {
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).update("update users set password = 'stale' where id = 1");
+        assertEquals("on primary", customUserDetailsService.loadUserByUsername(USERNAME).getPassword());
+    }
+
+    @Test
+    void tagAndBodyComeFromTheSameDatabase() {
+        ResourceVersionService.Tagged<List<TaskDTO>> tasks = resourceVersionService.readUserTasks(
+                1L, etag -> false, () -> taskService.getTasksByUserId(1L));
+        assertEquals("\"t-3\"", tasks.getETag());
+        assertEquals(List.of("on replica"), titles(tasks.getBody()));
+    }
+
+    // The user's password and task list version also differ between the two databases
+    private static void insertTask(JdbcTemplate jdbcTemplate, String title) {
+        jdbcTemplate.update("delete from tasks");
+        jdbcTemplate.update("delete from user_task_versions");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, username, email, password, created_at) values (1, ?, 'routing@example.com', ?, now())",
+                USERNAME, title);
+        jdbcTemplate.update("insert into user_task_versions (user_id, version) values (1, ?)", title.equals("on primary") ? 7 : 3);
+        jdbcTemplate.update("insert into tasks (id, title, priority, status, user_id) values (?, ?, 'LOW', 'TODO', 1)",
+                TASK_ID, title);
+    }
+
+    private List<String> titlesThroughFilter(ReadYourWritesFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, token));
+        List<List<String>> titles = new ArrayList<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> titles.add(titles(taskService.getAllTasks())));
+        return titles.get(0);
+    }
+
+    private static List<String> titles(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getTitle).toList();
+    }
+}
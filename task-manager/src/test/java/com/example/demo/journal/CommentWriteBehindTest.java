@@ -0,0 +1,118 @@
+package com.example.demo.journal;
+
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.loadtest.DatasetGenerator;
+import com.example.demo.loadtest.DatasetSize;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs with write-behind comments on an H2 database of its own. Before the application starts, the
+ * journal is given records the database has not seen, as if the previous process had crashed:
+ * two comments, one for a missing task and a torn record at the end.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + CommentWriteBehindTest.URL,
+        "comments.write-behind.enabled=true",
+        "comments.write-behind.batch-size=8"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CommentWriteBehindTest {
+
+    static final String URL = "jdbc:h2:mem:write-behind;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    static Path journalDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void journalDir(DynamicPropertyRegistry registry) {
+        registry.add("comments.write-behind.journal-dir", journalDir::toString);
+    }
+
+    // One user with tasks 1 and 2, and a journal left behind by a crash
+    @BeforeAll
+    static void crashedWithJournaledComments() throws Exception {
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+        new DatasetGenerator(new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""))).generate(new DatasetSize(1, 1, 2, 0));
+
+        try (CommentJournal journal = CommentJournal.open(journalDir, 1 << 20, JsonMapper.builder().findAndAddModules().build(), 0)) {
+            journal.append(List.of(comment("replayed 1", 1L), comment("replayed 2", 2L), comment("task deleted", 99L)));
+        }
+        try (Stream<Path> segments = Files.list(journalDir)) {
+            Files.write(segments.findFirst().orElseThrow(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+    }
+
+    @Test
+    void journaledCommentsAreReplayedAtStartup() throws Exception {
+        assertEquals(List.of("replayed 1", "replayed 2"),
+                jdbcTemplate.queryForList("select content from comments where content like 'replayed%' order by content", String.class));
+        assertEquals(0, count("select count(*) from comments where content = 'task deleted'"));
+        // No journal-name is configured, so the checkpoint is kept under the id written next to the segments
+        String journalId = Files.readString(journalDir.resolve("journal.id")).trim();
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "select last_sequence from comment_journal_checkpoints where journal = ?", Long.class, journalId));
+    }
+
+    @Test
+    void acceptedCommentsAreStoredByTheBackgroundWriter() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(post("/comments").with(user(DatasetGenerator.username(1)).roles("USER"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"content\":\"burst " + i + "\",\"userId\":1,\"taskId\":" + (i % 2 + 1) + "}"))
+                    .andExpect(status().isAccepted());
+        }
+        mockMvc.perform(post("/comments").with(user(DatasetGenerator.username(1)).roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"no such task\",\"userId\":1,\"taskId\":99}"))
+                .andExpect(status().isBadRequest());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (count("select count(*) from comments where content like 'burst %'") < 20) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Accepted comments were not stored within 10 seconds");
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static CommentDTO comment(String content, Long taskId) {
+        return new CommentDTO(null, content, null, null, 1L, taskId);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Seeds users, categories, tasks and comments straight through JDBC batches, bypassing JPA,
+ * so millions of rows load in minutes. Ids are assigned here (1..n per table) and the id
+ * generators are moved past them afterwards, so requests made later insert without collisions.
+ * Every user's password is {@link #PASSWORD}.
+ */
+public class DatasetGenerator {
+
+    public static final String PASSWORD = "loadtest-password";
+
+    private static final int BATCH_SIZE = 5000;
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final String[] WORDS = {
+            "report", "invoice", "meeting", "design", "review", "deploy", "budget", "client",
+            "sprint", "backlog", "release", "refactor", "database", "migration", "onboarding", "roadmap"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean h2;
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.h2 = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                connection.getMetaData().getDatabaseProductName().contains("H2")));
+    }
+
+    public void generate(DatasetSize size) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        insert("insert into users (id, username, email, password, first_name, last_name, created_at) values (?, ?, ?, ?, ?, ?, ?)",
+                size.users(), id -> new Object[]{id, username(id), "user" + id + "@loadtest.example", passwordHash,
+                        "Load", "User " + id, now});
+
+        insert("insert into categories (id, name, color, icon, created_at) values (?, ?, ?, ?, ?)",
+                size.categories(), id -> new Object[]{id, "Category " + id, "#" + String.format("%06x", id * 0x1F3D5B & 0xFFFFFF),
+                        "label", now});
+
+        long baseMillis = now.getTime();
+        insert("insert into tasks (id, title, description, priority, status, due_date, created_at, updated_at, user_id, category_id) "
+                        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                size.tasks(), id -> new Object[]{id, words(id, 3), "Generated task " + id + ": " + words(id * 31, 12),
+                        PRIORITIES[(int) (id % PRIORITIES.length)].name(), STATUSES[(int) (id / 7 % STATUSES.length)].name(),
+                        new Timestamp(baseMillis + (id % 120 - 60) * 86_400_000L), now, now,
+                        size.userOf(id), id % 5 == 0 ? null : id % size.categories() + 1});
+
+        insert("insert into comments (id, content, created_at, updated_at, user_id, task_id) values (?, ?, ?, ?, ?, ?)",
+                size.comments(), id -> new Object[]{id, "Comment " + id + " " + words(id * 17, 8), now, now,
+                        size.userOf(id), (id - 1) % size.tasks() + 1});
+
+        advanceIdGenerators(size);
+    }
+
+    public static String username(long userId) {
+        return "loaduser" + userId;
+    }
+
+    private void insert(String sql, long rows, LongFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(row.apply(id));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    // Pooled sequences hand out the block below their value, so leave a full allocation of headroom.
+    // Both databases use the MySQL sequence tables created by the migrations
+    private void advanceIdGenerators(DatasetSize size) {
+        jdbcTemplate.update("update task_seq set next_val = ?", size.tasks() + 100);
+        jdbcTemplate.update("update comment_seq set next_val = ?", size.comments() + 100);
+        if (h2) {
+            // MySQL's AUTO_INCREMENT moves past explicit ids by itself
+            jdbcTemplate.execute("alter table users alter column id restart with " + (size.users() + 1));
+            jdbcTemplate.execute("alter table categories alter column id restart with " + (size.categories() + 1));
+        }
+    }
+
+    private static String words(long seed, int count) {
+        StringBuilder text = new StringBuilder();
+        long state = seed * 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < count; i++) {
+            state ^= state >>> 29;
+            state *= 0xBF58476D1CE4E5B9L;
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[(int) ((state >>> 33) % WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
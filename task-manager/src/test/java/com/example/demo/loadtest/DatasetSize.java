@@ -0,0 +1,19 @@
+package com.example.demo.loadtest;
+
+// Row counts of one generated dataset; users and comments scale with the task count unless given
+public record DatasetSize(long users, long categories, long tasks, long comments) {
+
+    public static DatasetSize forTasks(long tasks, Long users, double commentsPerTask) {
+        long userCount = users != null ? users : Math.max(10, tasks / 100);
+        return new DatasetSize(userCount, 20, tasks, (long) (tasks * commentsPerTask));
+    }
+
+    public long userOf(long rowId) {
+        return (rowId - 1) % users + 1;
+    }
+
+    @Override
+    public String toString() {
+        return users + " users, " + categories + " categories, " + tasks + " tasks, " + comments + " comments";
+    }
+}
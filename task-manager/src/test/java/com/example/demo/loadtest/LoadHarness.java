@@ -0,0 +1,282 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.TaskManagerApplication;
+import com.example.demo.event.CategoryChangedEvent;
+import com.example.demo.reminder.ReminderService;
+import com.example.demo.search.TaskSearchService;
+import com.example.demo.service.TaskStatisticsService;
+import com.example.demo.util.JwtUtil;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test: for each requested dataset size, starts the application (embedded H2 in
+ * MySQL mode by default), seeds it with {@link DatasetGenerator}, then has closed-loop clients drive
+ * a weighted mix of task, comment, category and user requests over HTTP. Prints throughput and
+ * HDR latency percentiles per operation, so runs at 1k, 100k, 1M... tasks show how each endpoint scales.
+ *
+ * System properties (see the loadtest Maven profile):
+ *   loadtest.tasks             comma-separated task counts, one run each (default 1000)
+ *   loadtest.users             users per run (default tasks / 100, at least 10)
+ *   loadtest.comments-per-task (default 1)
+ *   loadtest.clients           concurrent clients (default 32)
+ *   loadtest.duration-seconds  measured time per run (default 30), after loadtest.warmup-seconds (default 10)
+ *   loadtest.mix               op=weight,... overriding {@link #DEFAULT_MIX}
+ *   loadtest.datasource.url / .username / .password  run against MySQL instead of H2
+ */
+public class LoadHarness {
+
+    private static final String DEFAULT_MIX = "pageUserTasks=25,listUserTasks=10,getTask=15,createTask=8,updateTask=7,"
+            + "taskChanges=5,searchTasks=5,listComments=10,createComment=5,listCategories=5,getUser=4,login=1";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(8))
+            .build();
+    private final String baseUrl;
+    private final DatasetSize size;
+    private final JwtUtil jwtUtil;
+    private final Map<Long, String> tokens = new ConcurrentHashMap<>();
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+    private final String[] schedule;
+
+    public LoadHarness(String baseUrl, DatasetSize size, JwtUtil jwtUtil, String mix) {
+        this.baseUrl = baseUrl;
+        this.size = size;
+        this.jwtUtil = jwtUtil;
+        registerOperations();
+        this.schedule = parseMix(mix);
+    }
+
+    public static void main(String[] args) throws Exception {
+        long[] taskCounts = Arrays.stream(System.getProperty("loadtest.tasks", "1000").split(","))
+                .map(String::trim)
+                .mapToLong(Long::parseLong)
+                .toArray();
+        String users = System.getProperty("loadtest.users");
+        double commentsPerTask = Double.parseDouble(System.getProperty("loadtest.comments-per-task", "1"));
+        int clients = Integer.getInteger("loadtest.clients", 32);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+        String mix = System.getProperty("loadtest.mix", DEFAULT_MIX);
+
+        for (long tasks : taskCounts) {
+            DatasetSize size = DatasetSize.forTasks(tasks, users == null ? null : Long.valueOf(users), commentsPerTask);
+            try (ConfigurableApplicationContext context = start(tasks)) {
+                long seedStart = System.nanoTime();
+                new DatasetGenerator(context.getBean(JdbcTemplate.class)).generate(size);
+                refreshDerivedState(context);
+                System.out.printf("%nDataset: %s (seeded in %.1f s)%n", size, (System.nanoTime() - seedStart) / 1e9);
+
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                LoadHarness harness = new LoadHarness(baseUrl, size, context.getBean(JwtUtil.class), mix);
+                harness.run(clients, warmupSeconds);
+                harness.run(clients, durationSeconds).print(clients, durationSeconds);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext start(long tasks) {
+        List<String> properties = new ArrayList<>();
+        String url = System.getProperty("loadtest.datasource.url");
+        if (url != null) {
+            properties.add("spring.datasource.url=" + url);
+            properties.add("spring.datasource.username=" + System.getProperty("loadtest.datasource.username", "root"));
+            properties.add("spring.datasource.password=" + System.getProperty("loadtest.datasource.password", ""));
+        } else {
+            // A fresh in-memory database per run
+            properties.add("spring.datasource.url=jdbc:h2:mem:loadtest" + tasks + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        }
+        return new SpringApplicationBuilder(TaskManagerApplication.class)
+                .profiles("loadtest")
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    // Rows written through JDBC bypass the events that keep in-memory state current
+    public static void refreshDerivedState(ApplicationContext context) {
+        context.publishEvent(new CategoryChangedEvent(CategoryChangedEvent.Type.SAVED, null));
+        context.getBean(TaskStatisticsService.class).reconcile();
+        context.getBean(TaskSearchService.class).rebuild();
+        context.getBean(ReminderService.class).load();
+    }
+
+    private void registerOperations() {
+        operations.put("pageUserTasks", () -> get("/tasks/user/" + randomUser() + "?limit=50"));
+        operations.put("listUserTasks", () -> get("/tasks/user/" + randomUser()));
+        operations.put("getTask", () -> get("/tasks/" + randomTask()));
+        operations.put("createTask", () -> send("POST", "/tasks", "{\"title\":\"Load task\",\"description\":\"Created under load\","
+                + "\"priority\":\"HIGH\",\"status\":\"TODO\",\"userId\":" + randomUser() + ",\"categoryId\":" + randomCategory() + "}"));
+        operations.put("updateTask", () -> {
+            long taskId = randomTask();
+            return send("PUT", "/tasks/" + taskId, "{\"id\":" + taskId + ",\"title\":\"Updated task\",\"description\":\"Updated under load\","
+                    + "\"priority\":\"LOW\",\"status\":\"IN_PROGRESS\",\"userId\":" + size.userOf(taskId) + ",\"categoryId\":" + randomCategory() + "}");
+        });
+        operations.put("taskChanges", () -> get("/tasks/user/" + randomUser() + "/changes?limit=100"));
+        operations.put("searchTasks", () -> get("/tasks/search?q=review+budget&userId=" + randomUser()));
+        operations.put("listComments", () -> get("/comments/task/" + randomTask()));
+        operations.put("createComment", () -> send("POST", "/comments", "{\"content\":\"Comment under load\",\"userId\":"
+                + randomUser() + ",\"taskId\":" + randomTask() + "}"));
+        operations.put("listCategories", () -> get("/categories"));
+        operations.put("getUser", () -> get("/users/" + randomUser()));
+        operations.put("login", () -> {
+            long userId = randomUser();
+            return request("POST", "/users/login", "{\"username\":\"" + DatasetGenerator.username(userId)
+                    + "\",\"password\":\"" + DatasetGenerator.PASSWORD + "\"}", null);
+        });
+    }
+
+    // Expand op=weight pairs into a table sampled uniformly
+    private String[] parseMix(String mix) {
+        List<String> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (!operations.containsKey(parts[0])) {
+                throw new IllegalArgumentException("Unknown operation " + parts[0] + "; known: " + operations.keySet());
+            }
+            for (int i = Integer.parseInt(parts[1]); i > 0; i--) {
+                table.add(parts[0]);
+            }
+        }
+        return table.toArray(String[]::new);
+    }
+
+    private Report run(int clients, int seconds) throws Exception {
+        Report report = new Report();
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<?>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    String name = schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = operations.get(name).execute();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    report.record(name, System.nanoTime() - start, status);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+        return report;
+    }
+
+    private int get(String path) throws Exception {
+        return request("GET", path, null, token(randomUser()));
+    }
+
+    private int send(String method, String path, String json) throws Exception {
+        return request(method, path, json, token(randomUser()));
+    }
+
+    private int request(String method, String path, String json, String token) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, json == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8));
+        if (json != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Tokens are minted in-process; logins are exercised by their own operation
+    private String token(long userId) {
+        return tokens.computeIfAbsent(userId, id -> jwtUtil.generateToken(DatasetGenerator.username(id)));
+    }
+
+    private long randomUser() {
+        return ThreadLocalRandom.current().nextLong(size.users()) + 1;
+    }
+
+    private long randomTask() {
+        return ThreadLocalRandom.current().nextLong(size.tasks()) + 1;
+    }
+
+    private long randomCategory() {
+        return ThreadLocalRandom.current().nextLong(size.categories()) + 1;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        int execute() throws Exception;
+    }
+
+    // Latency histogram and error count per operation
+    private static final class Report {
+
+        private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+        private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+        private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        void record(String name, long nanos, int status) {
+            latencies.computeIfAbsent(name, key -> new ConcurrentHistogram(MAX_LATENCY, 3))
+                    .recordValue(Math.min(nanos, MAX_LATENCY));
+            if (status < 0 || status >= 500 || status == 401 || status == 403) {
+                errors.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+            }
+        }
+
+        void print(int clients, int seconds) {
+            System.out.printf("%d clients, %d s%n", clients, seconds);
+            System.out.printf("%-16s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                    "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            Histogram total = new Histogram(MAX_LATENCY, 3);
+            latencies.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> {
+                        Histogram histogram = entry.getValue();
+                        total.add(histogram);
+                        printRow(entry.getKey(), histogram, errors.getOrDefault(entry.getKey(), new AtomicLong()).get(), seconds);
+                    });
+            printRow("total", total, errors.values().stream().mapToLong(AtomicLong::get).sum(), seconds);
+        }
+
+        private static void printRow(String name, Histogram histogram, long errorCount, int seconds) {
+            System.out.printf("%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, histogram.getTotalCount(), errorCount, (double) histogram.getTotalCount() / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1e6);
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.reminder;
+
+import com.example.demo.reminder.HierarchicalTimingWheel.Timeout;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that entries fire on the tick of their deadline whichever level they start on, including
+ * deadlines past the top level's range, and that cancelled entries never fire.
+ */
+class HierarchicalTimingWheelTest {
+
+    // Ticks covered by the four levels of 64 slots
+    private static final long RANGE = 1L << 24;
+
+    @Test
+    void entryFiresOnTheTickOfItsDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 1_000);
+        wheel.schedule(1_050, "due");
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(1_049, fired::add);
+        assertEquals(List.of(), fired);
+        wheel.advanceTo(1_050, fired::add);
+        assertEquals(List.of("due"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 500);
+        wheel.schedule(100, "late");
+        List<String> fired = new ArrayList<>();
+
+        wheel.advanceTo(500, fired::add);
+        assertEquals(List.of(), fired);
+        wheel.advanceTo(501, fired::add);
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void entriesOnEveryLevelFireOnTime() {
+        long start = 12_345;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, start);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (long delta : new long[]{1, 63, 64, 65, 4_095, 4_096, 262_143, 262_144, RANGE - 1, RANGE, 3 * RANGE + 7}) {
+            deadlines.add(start + delta);
+        }
+        for (int i = 0; i < 500; i++) {
+            deadlines.add(start + 1 + (long) (random.nextDouble() * 2 * RANGE));
+        }
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        long last = deadlines.stream().mapToLong(Long::longValue).max().orElseThrow();
+        for (long now = start; now <= last; now += 997) {
+            long tick = now;
+            wheel.advanceTo(now, deadline -> firedAt.put(deadline, tick));
+        }
+        wheel.advanceTo(last, deadline -> firedAt.put(deadline, last));
+
+        assertEquals(0, wheel.size());
+        for (long deadline : deadlines) {
+            assertTrue(firedAt.containsKey(deadline), "never fired: " + deadline);
+            long fired = firedAt.get(deadline);
+            assertTrue(fired >= deadline && fired < deadline + 997, deadline + " fired at " + fired);
+        }
+    }
+
+    @Test
+    void cancelledEntryDoesNotFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1, 0);
+        Timeout<String> cancelled = wheel.schedule(5_000, "cancelled");
+        wheel.schedule(5_000, "kept");
+        assertEquals(2, wheel.size());
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(10_000, fired::add);
+
+        assertEquals(List.of("kept"), fired);
+        assertEquals(0, wheel.size());
+    }
+}
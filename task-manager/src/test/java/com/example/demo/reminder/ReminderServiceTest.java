@@ -0,0 +1,144 @@
+package com.example.demo.reminder;
+
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a due reminder is sent once however many nodes' wheels fire it: the second claim of
+ * the same reminder, as another node would make it, sends nothing, nor does a claim from a wheel
+ * that missed a change made on another node. Each test works on a user and task of its own, in an
+ * H2 database no other test class uses.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + ReminderServiceTest.URL)
+@ActiveProfiles("test")
+class ReminderServiceTest {
+
+    static final String URL = "jdbc:h2:mem:reminder-service;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void createCategory() {
+        categoryId = categoryService.createCategory("Reminders", "#000000", "x").getId();
+    }
+
+    @Test
+    void reminderIsFiredByOneClaimOnly() {
+        TaskReminderEvent reminder = reminder(task("reminder-once"), Duration.ofHours(1));
+
+        assertEquals(List.of(reminder), reminderService.fire(List.of(reminder)));
+        assertEquals(List.of(), reminderService.fire(List.of(reminder)));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from fired_reminders where task_id = ?", Long.class, reminder.getTaskId()));
+    }
+
+    @Test
+    void eachOffsetIsClaimedSeparately() {
+        Task task = task("reminder-offsets");
+        TaskReminderEvent dayBefore = reminder(task, Duration.ofHours(24));
+        TaskReminderEvent hourBefore = reminder(task, Duration.ofHours(1));
+
+        assertEquals(List.of(dayBefore, hourBefore), reminderService.fire(List.of(dayBefore, hourBefore)));
+    }
+
+    @Test
+    void reminderForADeletedTaskIsDropped() {
+        TaskReminderEvent reminder = reminder(task("reminder-deleted"), Duration.ofHours(1));
+        taskService.deleteTask(reminder.getTaskId());
+
+        assertEquals(List.of(), reminderService.fire(List.of(reminder)));
+    }
+
+    @Test
+    void reminderForARescheduledOrCompletedTaskIsDropped() {
+        Task rescheduled = task("reminder-rescheduled");
+        TaskReminderEvent stale = reminder(rescheduled, Duration.ofHours(1));
+        jdbcTemplate.update("update tasks set due_date = ? where id = ?", rescheduled.getDueDate().plusDays(1), rescheduled.getId());
+        Task completed = task("reminder-completed");
+        jdbcTemplate.update("update tasks set status = 'COMPLETED' where id = ?", completed.getId());
+
+        assertEquals(List.of(), reminderService.fire(List.of(stale, reminder(completed, Duration.ofHours(1)))));
+    }
+
+    @Test
+    void claimedReminderIsPublishedOnceWithTheCurrentTitle() {
+        TaskReminderEvent reminder = reminder(task("reminder-relay"), Duration.ofHours(1));
+        reminderService.fire(List.of(reminder));
+        jdbcTemplate.update("update tasks set title = 'Renamed' where id = ?", reminder.getTaskId());
+
+        List<TaskReminderEvent> published = reminderService.relayClaimed().stream()
+                .filter(event -> event.getTaskId().equals(reminder.getTaskId()))
+                .toList();
+        assertEquals(1, published.size());
+        assertEquals("Renamed", published.get(0).getTitle());
+        assertEquals(reminder.getUserId(), published.get(0).getUserId());
+        assertEquals(Duration.ofHours(1), published.get(0).getOffset());
+        assertEquals(List.of(), reminderService.relayClaimed().stream()
+                .filter(event -> event.getTaskId().equals(reminder.getTaskId()))
+                .toList());
+    }
+
+    @Test
+    void pruneRemovesClaimsForPastDueDates() {
+        TaskReminderEvent reminder = reminder(task("reminder-prune"), Duration.ofHours(1));
+        reminderService.fire(List.of(reminder));
+        jdbcTemplate.update("update fired_reminders set due_date = ? where task_id = ?",
+                LocalDateTime.now().minusDays(1), reminder.getTaskId());
+
+        reminderService.pruneFiredReminders();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from fired_reminders where task_id = ?", Long.class, reminder.getTaskId()));
+    }
+
+    private Task task(String username) {
+        User user = userRepository.save(new User.Builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+        return taskService.saveTask(new Task.Builder()
+                .title("Due soon")
+                .dueDate(LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS))
+                .user(new User(user.getId()))
+                .category(new Category(categoryId))
+                .build());
+    }
+
+    private static TaskReminderEvent reminder(Task task, Duration offset) {
+        return new TaskReminderEvent(task.getId(), task.getUser().getId(), task.getTitle(), task.getDueDate(), offset);
+    }
+}
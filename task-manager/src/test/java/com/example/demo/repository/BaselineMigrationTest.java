@@ -0,0 +1,64 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+import com.example.demo.service.TaskService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts on a database shaped like one the original ddl-auto=update code left behind: the V1 tables
+ * (V1 is kept to exactly that schema), some rows, and no Flyway history. Flyway baselines it at V1 and must bring it to the current
+ * schema, which Hibernate then validates.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + BaselineMigrationTest.URL)
+@ActiveProfiles("test")
+class BaselineMigrationTest {
+
+    static final String URL = "jdbc:h2:mem:baseline;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void databaseFromDdlAutoUpdate() {
+        Flyway.configure().dataSource(URL, "sa", "").target("1").load().migrate();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        jdbcTemplate.update("drop table flyway_schema_history");
+        jdbcTemplate.update("insert into users (id, username, email, password, created_at) values (1, 'legacy', 'legacy@example.com', 'x', now())");
+        jdbcTemplate.update("insert into categories (id, name) values (1, 'Legacy')");
+        jdbcTemplate.update("insert into tasks (id, title, priority, status, user_id, category_id) values (700, 'Legacy task', 'LOW', 'TODO', 1, 1)");
+    }
+
+    @Test
+    void baselinedDatabaseIsMigratedAndTakesNewTasks() {
+        Task saved = taskService.saveTasks(List.of(new Task.Builder()
+                .title("After migration")
+                .priority(TaskPriority.MEDIUM)
+                .status(TaskStatus.TODO)
+                .user(new User(1L))
+                .category(new Category(1L))
+                .build())).get(0);
+        assertTrue(saved.getId() > 700);
+        // Counted in task_statistics, which V1 does not have
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "select task_count from task_statistics where user_id = 1 and status = 'TODO' and priority = 'MEDIUM'", Long.class));
+    }
+}
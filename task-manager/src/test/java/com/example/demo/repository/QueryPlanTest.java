@@ -0,0 +1,200 @@
+package com.example.demo.repository;
+
+import com.example.demo.enums.TaskPriority;
+import com.example.demo.enums.TaskStatus;
+import com.example.demo.support.QueryBudget;
+import com.example.demo.support.QueryBudgetConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * An H2 plan check: runs EXPLAIN on the SQL of every repository query and fails if any table is
+ * read by a full scan, i.e. a query the migrations have no index for. findAll and findAllDTOs read
+ * every row by design and are left out. The second-level cache is cleared before each query so it
+ * reaches the database.
+ * <p>
+ * The plans are H2's, on an H2 database of its own: this shows that an index the query can use
+ * exists, not which plan MySQL will choose. MySQL picks plans from its own statistics, so check
+ * those with EXPLAIN against a MySQL copy of production data.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + QueryPlanTest.URL)
+@ActiveProfiles("test")
+@Import(QueryBudgetConfiguration.class)
+class QueryPlanTest {
+
+    static final String URL = "jdbc:h2:mem:query-plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // H2 prints one /* table-or-index: conditions */ comment per table it reads; a table scan, or an
+    // index comment with no conditions, reads the whole table
+    private static final Pattern ACCESS = Pattern.compile("/\\* ([^*]*?) \\*/");
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final List<Long> IDS = List.of(1L, 2L, 3L);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TaskStatisticRepository taskStatisticRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTaskVersionRepository userTaskVersionRepository;
+
+    @Autowired
+    private TaskCommentVersionRepository taskCommentVersionRepository;
+
+    @Autowired
+    private FiredReminderRepository firedReminderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    // The increments and the reminder claim write rows that reference user 1 and task 1
+    @BeforeEach
+    void seedReferencedRows() {
+        jdbcTemplate.update("insert ignore into users (id, username, email, password, created_at) values (1, 'loaduser1', 'user1@loadtest.example', 'x', now())");
+        jdbcTemplate.update("insert ignore into categories (id, name) values (1, 'Plans')");
+        jdbcTemplate.update("insert ignore into tasks (id, title, priority, status, user_id, category_id) values (1, 'Planned', 'LOW', 'TODO', 1, 1)");
+    }
+
+    @Test
+    void taskQueriesUseIndexes() throws Exception {
+        assertIndexed("findByStatus", () -> taskRepository.findByStatus(TaskStatus.TODO));
+        assertIndexed("findByPriority", () -> taskRepository.findByPriority(TaskPriority.HIGH));
+        assertIndexed("findByUserId", () -> taskRepository.findByUserId(1L));
+        assertIndexed("findByStatusAndUserId", () -> taskRepository.findByStatusAndUserId(TaskStatus.TODO, 1L));
+        assertIndexed("findByPriorityAndUserId", () -> taskRepository.findByPriorityAndUserId(TaskPriority.HIGH, 1L));
+        assertIndexed("findByIdAndUserId", () -> taskRepository.findByIdAndUserId(5L, 1L));
+        assertIndexed("findKeyById", () -> taskRepository.findKeyById(5L));
+        assertIndexed("findKeysByIdIn", () -> taskRepository.findKeysByIdIn(IDS));
+        assertIndexed("findKeysByCategoryId", () -> taskRepository.findKeysByCategoryId(1L));
+        assertIndexed("findKeysByUserId", () -> taskRepository.findKeysByUserId(1L));
+        assertIndexed("findExistingIds", () -> taskRepository.findExistingIds(IDS));
+        assertIndexed("findOpenDueDatesAfter", () -> taskRepository.findOpenDueDatesAfter(NOW, Long.MAX_VALUE, Limit.of(100)));
+        assertIndexed("findDTOsByStatus", () -> taskRepository.findDTOsByStatus(TaskStatus.TODO));
+        assertIndexed("findDTOsByPriority", () -> taskRepository.findDTOsByPriority(TaskPriority.HIGH));
+        assertIndexed("findDTOsByUserId", () -> taskRepository.findDTOsByUserId(1L));
+        assertIndexed("findDTOsByIdIn", () -> taskRepository.findDTOsByIdIn(IDS));
+        assertIndexed("findDTOsAfter", () -> taskRepository.findDTOsAfter(0L, Limit.of(10)));
+        assertIndexed("findDTOsByStatusAfter", () -> taskRepository.findDTOsByStatusAfter(TaskStatus.TODO, 0L, Limit.of(10)));
+        assertIndexed("findDTOsByPriorityAfter", () -> taskRepository.findDTOsByPriorityAfter(TaskPriority.HIGH, 0L, Limit.of(10)));
+        assertIndexed("findDTOsByUserIdAfter", () -> taskRepository.findDTOsByUserIdAfter(1L, 0L, Limit.of(10)));
+        assertIndexed("findChangesAfter", () -> taskRepository.findChangesAfter(1L, 0L, 0L, Limit.of(10)));
+        assertIndexed("streamDTOsByUserId", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (var tasks = taskRepository.streamDTOsByUserId(1L)) {
+                tasks.count();
+            }
+        }));
+    }
+
+    @Test
+    void commentQueriesUseIndexes() throws Exception {
+        assertIndexed("findByTaskId", () -> commentRepository.findByTaskId(1L));
+        assertIndexed("findDTOsAfter", () -> commentRepository.findDTOsAfter(0L, Limit.of(10)));
+        assertIndexed("findDTOsByTaskId", () -> commentRepository.findDTOsByTaskId(1L));
+        assertIndexed("findTaskIdsByUserId", () -> commentRepository.findTaskIdsByUserId(1L));
+    }
+
+    @Test
+    void supportingQueriesUseIndexes() throws Exception {
+        assertIndexed("TaskStatistic.findByUserId", () -> taskStatisticRepository.findByUserId(1L));
+        assertIndexed("TaskStatistic.recomputeForUser", () -> transactionTemplate.executeWithoutResult(status -> {
+            taskStatisticRepository.recomputeForUser(999_999L);
+            status.setRollbackOnly();
+        }));
+        assertIndexed("TaskStatistic.deleteByUserId", () -> transactionTemplate.executeWithoutResult(status -> {
+            taskStatisticRepository.deleteByUserId(999_999L);
+            status.setRollbackOnly();
+        }));
+        assertIndexed("TaskTombstone.findTombstonesAfter",
+                () -> taskTombstoneRepository.findTombstonesAfter(1L, 0L, 0L, Limit.of(10)));
+        assertIndexed("TaskTombstone.deleteOlderThan",
+                () -> transactionTemplate.executeWithoutResult(status -> taskTombstoneRepository.deleteOlderThan(NOW.minusYears(1))));
+        assertIndexed("TaskCommentVersion.increment", () -> transactionTemplate.executeWithoutResult(status -> {
+            taskCommentVersionRepository.increment(1L);
+            status.setRollbackOnly();
+        }));
+        assertIndexed("TaskCommentVersion.findVersion", () -> taskCommentVersionRepository.findVersion(1L));
+        assertIndexed("FiredReminder.claim", () -> transactionTemplate.executeWithoutResult(status -> {
+            firedReminderRepository.claim(1L, NOW, NOW, 3600L);
+            status.setRollbackOnly();
+        }));
+        assertIndexed("FiredReminder.findFiredSince", () -> firedReminderRepository.findFiredSince(NOW));
+        assertIndexed("FiredReminder.deleteDueBefore", () -> transactionTemplate.executeWithoutResult(status -> {
+            firedReminderRepository.deleteDueBefore(NOW);
+            status.setRollbackOnly();
+        }));
+        assertIndexed("UserTaskVersion.increment", () -> transactionTemplate.executeWithoutResult(status -> {
+            userTaskVersionRepository.increment(1L);
+            status.setRollbackOnly();
+        }));
+        assertIndexed("UserTaskVersion.findVersion", () -> userTaskVersionRepository.findVersion(1L));
+        assertIndexed("UserTaskVersion.findVersions", () -> userTaskVersionRepository.findVersions(IDS));
+        assertIndexed("User.findByUsername", () -> userRepository.findByUsername("loaduser1"));
+        assertIndexed("User.findCredentialsByUsername", () -> userRepository.findCredentialsByUsername("loaduser1"));
+        assertIndexed("User.findCredentialsById", () -> userRepository.findCredentialsById(1L));
+        assertIndexed("User.existsByUsername", () -> userRepository.existsByUsername("loaduser1"));
+        assertIndexed("User.existsByEmail", () -> userRepository.existsByEmail("user1@loadtest.example"));
+        assertIndexed("User.findExistingIds", () -> userRepository.findExistingIds(IDS));
+        assertIndexed("User.findIdsAfter", () -> userRepository.findIdsAfter(0L, Limit.of(10)));
+    }
+
+    private void assertIndexed(String query, Runnable call) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        List<String> statements = queryBudget.atMost(1, call::run);
+        assertFalse(statements.isEmpty(), query + " issued no SQL");
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+            List<String> fullScans = fullScans(plan);
+            assertTrue(fullScans.isEmpty(), query + " reads " + fullScans + " in full:" + System.lineSeparator() + plan);
+        }
+    }
+
+    private static List<String> fullScans(String plan) {
+        List<String> fullScans = new ArrayList<>();
+        Matcher access = ACCESS.matcher(plan);
+        while (access.find()) {
+            String comment = access.group(1);
+            if (comment.endsWith(".tableScan") || (comment.startsWith("public.") && !comment.contains(":"))) {
+                fullScans.add(comment);
+            }
+        }
+        return fullScans;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.CustomUserDetailsService;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.UserService;
+import com.example.demo.support.QueryBudget;
+import com.example.demo.support.QueryBudgetConfiguration;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that repeated entity and natural-id reads are answered from the second-level cache
+ * without SQL, that a username change does not leave the old name cached, and that credential
+ * and registration checks see changes made outside this node's cache. Runs on an H2 database of
+ * its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + SecondLevelCacheTest.URL)
+@ActiveProfiles("test")
+@Import(QueryBudgetConfiguration.class)
+class SecondLevelCacheTest {
+
+    static final String URL = "jdbc:h2:mem:second-level-cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    @Test
+    void repeatedReadsIssueNoSql() throws Exception {
+        String username = "cache-reads";
+        Long userId = userRepository.save(new User.Builder()
+                .username(username)
+                .email("cache-reads@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build()).getId();
+        Long categoryId = categoryService.createCategory("Cached", "#000000", "x").getId();
+        Long taskId = taskService.saveTask(new Task.Builder()
+                .title("Cached")
+                .user(new User(userId))
+                .category(new Category(categoryId))
+                .build()).getId();
+        userRepository.findByUsername(username);
+        taskRepository.findById(taskId);
+        categoryRepository.findById(categoryId);
+
+        queryBudget.atMost(0, () -> {
+            assertTrue(userRepository.findByUsername(username).isPresent());
+            assertTrue(taskRepository.findById(taskId).isPresent());
+            assertTrue(categoryRepository.findById(categoryId).isPresent());
+        });
+
+        assertTrue(hits("users") > 0, "no hits recorded in the users region");
+        assertTrue(hits("tasks") > 0, "no hits recorded in the tasks region");
+    }
+
+    @Test
+    void registrationChecksSeeUsersAddedOnAnotherNode() {
+        assertFalse(userRepository.existsByUsername("cache-elsewhere"));
+        assertFalse(userRepository.existsByEmail("elsewhere@example.com"));
+
+        jdbcTemplate.update("insert into users (username, email, password, created_at) "
+                + "values ('cache-elsewhere', 'elsewhere@example.com', 'x', now())");
+
+        assertTrue(userRepository.existsByUsername("cache-elsewhere"));
+        assertTrue(userRepository.existsByEmail("elsewhere@example.com"));
+    }
+
+    @Test
+    void renamedUserIsNotFoundByTheOldName() {
+        User user = userRepository.save(new User.Builder()
+                .username("cache-before")
+                .email("cache@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+        assertTrue(userRepository.findByUsername("cache-before").isPresent());
+
+        userService.updateUsername(user.getId(), "cache-after");
+
+        assertTrue(userRepository.findByUsername("cache-before").isEmpty());
+        assertEquals(user.getId(), userRepository.findByUsername("cache-after").orElseThrow().getId());
+    }
+
+    @Test
+    void passwordChangedOnAnotherNodeIsCheckedAgainstTheDatabase() {
+        User user = userRepository.save(new User.Builder()
+                .username("cache-password")
+                .email("cache-password@example.com")
+                .password(passwordEncoder.encode("old-secret"))
+                .createdAt(LocalDateTime.now())
+                .build());
+        assertTrue(userService.authenticateUser("cache-password", "old-secret").isPresent());
+        userRepository.findByUsername("cache-password").orElseThrow();
+
+        // As another node would: the change never reaches this node's second-level cache
+        String newHash = passwordEncoder.encode("new-secret");
+        jdbcTemplate.update("update users set password = ? where id = ?", newHash, user.getId());
+
+        assertEquals(newHash, customUserDetailsService.loadUserByUsername("cache-password").getPassword());
+        assertTrue(userService.authenticateUser("cache-password", "old-secret").isEmpty());
+        assertTrue(userService.authenticateUser("cache-password", "new-secret").isPresent());
+    }
+
+    private double hits(String region) {
+        FunctionCounter counter = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", region, "result", "hit")
+                .functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks BM25 ranking and that postings follow every write: edited, moved and deleted tasks,
+ * and added, edited and deleted comments, are found exactly where their current text says.
+ */
+class TaskSearchIndexTest {
+
+    private static final Long USER = 1L;
+    private static final Long OTHER_USER = 2L;
+
+    private final TaskSearchIndex index = new TaskSearchIndex();
+
+    @Test
+    void moreFrequentTermRanksHigher() {
+        index.indexTask(1L, USER, "Invoice", "Send the invoice");
+        index.indexTask(2L, USER, "Invoice", "Invoice, invoice and invoice again");
+        index.indexTask(3L, USER, "Groceries", "Milk");
+
+        assertEquals(List.of(2L, 1L), index.search(USER, "invoice", 10));
+    }
+
+    @Test
+    void rarerTermOutweighsCommonOne() {
+        index.indexTask(1L, USER, "Meeting notes", null);
+        index.indexTask(2L, USER, "Meeting agenda", null);
+        index.indexTask(3L, USER, "Meeting room", null);
+
+        assertEquals(List.of(2L, 1L, 3L), index.search(USER, "meeting agenda", 10));
+    }
+
+    @Test
+    void shorterDocumentRanksHigherForTheSameCount() {
+        index.indexTask(1L, USER, "Budget", "Draft the budget for the quarterly planning offsite next month");
+        index.indexTask(2L, USER, "Budget", null);
+
+        assertEquals(List.of(2L, 1L), index.search(USER, "budget", 10));
+    }
+
+    @Test
+    void limitKeepsTheBestMatches() {
+        index.indexTask(1L, USER, "Report", null);
+        index.indexTask(2L, USER, "Report report report", null);
+        index.indexTask(3L, USER, "Report report", null);
+
+        assertEquals(List.of(2L, 3L), index.search(USER, "report", 2));
+        assertEquals(List.of(), index.search(USER, "report", 0));
+    }
+
+    @Test
+    void searchStaysWithinTheUsersTasks() {
+        index.indexTask(1L, USER, "Shared word", null);
+        index.indexTask(2L, OTHER_USER, "Shared word", null);
+
+        assertEquals(List.of(1L), index.search(USER, "shared", 10));
+        assertEquals(List.of(), index.search(3L, "shared", 10));
+    }
+
+    @Test
+    void editReplacesTheOldTerms() {
+        index.indexTask(1L, USER, "Call plumber", null);
+        index.indexTask(1L, USER, "Call electrician", null);
+
+        assertEquals(List.of(), index.search(USER, "plumber", 10));
+        assertEquals(List.of(1L), index.search(USER, "electrician", 10));
+        assertEquals(List.of(1L), index.search(USER, "call", 10));
+    }
+
+    @Test
+    void ownerChangeMovesTheTaskAndItsComments() {
+        index.indexTask(1L, USER, "Handover", null);
+        index.indexComment(10L, 1L, "checklist attached");
+        index.indexTask(1L, OTHER_USER, "Handover", null);
+
+        assertEquals(List.of(), index.search(USER, "handover checklist", 10));
+        assertEquals(List.of(1L), index.search(OTHER_USER, "checklist", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void commentsAreSearchedWithTheirTask() {
+        index.indexTask(1L, USER, "Release", null);
+        index.indexComment(10L, 1L, "waiting on changelog");
+        index.indexComment(11L, 1L, "changelog approved");
+
+        assertEquals(List.of(1L), index.search(USER, "approved", 10));
+
+        index.indexComment(11L, 1L, "rejected");
+        assertEquals(List.of(), index.search(USER, "approved", 10));
+        assertEquals(List.of(1L), index.search(USER, "changelog", 10));
+
+        index.removeComment(10L, 1L);
+        assertEquals(List.of(), index.search(USER, "changelog", 10));
+        assertEquals(List.of(1L), index.search(USER, "release rejected", 10));
+    }
+
+    @Test
+    void commentForAnUnindexedTaskIsIgnored() {
+        index.indexComment(10L, 99L, "orphan");
+
+        assertEquals(List.of(), index.search(USER, "orphan", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void fullIndexLeavesNewTasksOutButKeepsUpdatingIndexedOnes() {
+        TaskSearchIndex small = new TaskSearchIndex(2);
+        assertTrue(small.indexTask(1L, USER, "Alpha", null));
+        assertTrue(small.indexTask(2L, USER, "Beta", null));
+
+        assertFalse(small.indexTask(3L, USER, "Gamma", null));
+        assertTrue(small.indexTask(2L, USER, "Delta", null));
+        assertEquals(List.of(), small.search(USER, "gamma", 10));
+        assertEquals(List.of(2L), small.search(USER, "delta", 10));
+
+        small.removeTask(1L);
+        assertTrue(small.indexTask(3L, USER, "Gamma", null));
+        assertEquals(List.of(3L), small.search(USER, "gamma", 10));
+    }
+
+    @Test
+    void deletedTasksAndUsersAreNotFound() {
+        index.indexTask(1L, USER, "Alpha", null);
+        index.indexTask(2L, USER, "Alpha beta", null);
+        index.indexTask(3L, OTHER_USER, "Alpha", null);
+        index.indexComment(10L, 2L, "gamma");
+
+        index.removeTask(2L);
+        assertEquals(List.of(1L), index.search(USER, "alpha beta gamma", 10));
+
+        index.removeUser(USER);
+        assertEquals(List.of(), index.search(USER, "alpha", 10));
+        assertEquals(List.of(3L), index.search(OTHER_USER, "alpha", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void postingsStayOrderedUnderOutOfOrderWrites() {
+        for (long id = 50; id >= 1; id--) {
+            index.indexTask(id, USER, "Common", id % 2 == 0 ? "even" : null);
+        }
+        for (long id = 1; id <= 50; id += 3) {
+            index.removeTask(id);
+        }
+
+        List<Long> even = index.search(USER, "even", 100);
+        assertEquals(17, even.size());
+        assertEquals(List.of(), even.stream().filter(id -> id % 2 != 0 || (id - 1) % 3 == 0).toList());
+        assertEquals(33, index.search(USER, "common", 100).size());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.CommentDTO;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.CommentService;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that committed task, comment and user writes reach the index, so searches reflect them
+ * without a rebuild, and that a comment on a task the index never saw brings in the whole task.
+ * Each test works on a user of its own, in an H2 database no other test class uses.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + TaskSearchServiceTest.URL)
+@ActiveProfiles("test")
+class TaskSearchServiceTest {
+
+    static final String URL = "jdbc:h2:mem:task-search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void createCategory() {
+        categoryId = categoryService.createCategory("Search", "#000000", "x").getId();
+    }
+
+    @Test
+    void taskAndCommentWritesAreSearchable() {
+        User user = user("search-writes");
+        Task task = taskService.saveTask(task(null, user, "Renew passport"));
+        assertEquals(List.of(task.getId()), ids(user, "passport"));
+
+        CommentDTO comment = commentService.saveComment(new CommentDTO(null, "photos at the embassy", null, null,
+                user.getId(), task.getId()));
+        assertEquals(List.of(task.getId()), ids(user, "embassy"));
+
+        commentService.updateComment(comment.getId(), "photos at the consulate");
+        assertEquals(List.of(), ids(user, "embassy"));
+        assertEquals(List.of(task.getId()), ids(user, "consulate"));
+
+        taskService.saveTask(task(task.getId(), user, "Renew visa"));
+        assertEquals(List.of(), ids(user, "passport"));
+        assertEquals(List.of(task.getId()), ids(user, "visa consulate"));
+
+        taskService.deleteTask(task.getId());
+        assertEquals(List.of(), ids(user, "visa consulate"));
+    }
+
+    @Test
+    void commentOnATaskSavedElsewhereIndexesTheWholeTask() {
+        User user = user("search-elsewhere");
+        // Written straight to the database, as another node would, so this node's index never saw them
+        jdbcTemplate.update("insert into tasks (id, title, priority, status, user_id, category_id) values (900001, 'Book flights', 'LOW', 'TODO', ?, ?)",
+                user.getId(), categoryId);
+        jdbcTemplate.update("insert into comments (id, content, user_id, task_id) values (900001, 'window seat', ?, 900001)",
+                user.getId());
+        assertEquals(List.of(), ids(user, "flights"));
+
+        commentService.saveComment(new CommentDTO(null, "aisle is fine too", null, null, user.getId(), 900001L));
+
+        assertEquals(List.of(900001L), ids(user, "flights"));
+        assertEquals(List.of(900001L), ids(user, "window"));
+        assertEquals(List.of(900001L), ids(user, "aisle"));
+    }
+
+    @Test
+    void deletedUsersTasksAreNotFound() {
+        User user = user("search-deleted");
+        taskService.saveTask(task(null, user, "Cancel subscription"));
+
+        userService.deleteUser(user.getId());
+
+        assertEquals(List.of(), ids(user, "subscription"));
+    }
+
+    @Test
+    void blankQueryIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> taskSearchService.search(1L, " ", 10));
+    }
+
+    private List<Long> ids(User user, String query) {
+        return taskSearchService.search(user.getId(), query, 10).stream().map(TaskDTO::getId).toList();
+    }
+
+    private User user(String username) {
+        return userRepository.save(new User.Builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Task task(Long id, User user, String title) {
+        return new Task.Builder()
+                .id(id)
+                .title(title)
+                .user(new User(user.getId()))
+                .category(new Category(categoryId))
+                .build();
+    }
+}
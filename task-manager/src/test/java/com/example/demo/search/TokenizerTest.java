@@ -0,0 +1,41 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks how text is split into terms: lower-cased runs of letters and digits, without stop words
+ * or terms too short or too long to be useful.
+ */
+class TokenizerTest {
+
+    @Test
+    void splitsOnNonWordCharactersAndLowerCases() {
+        assertEquals(Map.of("fix", 2, "login", 1, "bug", 1, "v2", 1),
+                Tokenizer.termFrequencies("Fix login-bug; FIX v2!"));
+    }
+
+    @Test
+    void dropsStopWordsAndShortOrLongTerms() {
+        assertEquals(Map.of("review", 1, "pr", 1),
+                Tokenizer.termFrequencies("Review the PR x " + "y".repeat(65)));
+    }
+
+    @Test
+    void keepsLettersOutsideAscii() {
+        assertEquals(Map.of("überprüfen", 1, "straße", 1), Tokenizer.termFrequencies("Überprüfen: Straße"));
+    }
+
+    @Test
+    void addsToExistingCounts() {
+        Map<String, Integer> frequencies = new HashMap<>(Tokenizer.termFrequencies("deploy release"));
+        Tokenizer.addTerms("release notes", frequencies);
+        Tokenizer.addTerms(null, frequencies);
+
+        assertEquals(Map.of("deploy", 1, "release", 2, "notes", 1), frequencies);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that a credential change invalidates cached logins when it commits, including logins
+ * verified against the old password while the change was still in flight or presented in
+ * another case than the stored username.
+ */
+class AuthenticationCacheTest {
+
+    private static final UserDetails ALICE = User.withUsername("alice").password("hash").roles("USER").build();
+
+    private final AuthenticationCache cache = new AuthenticationCache(100, 300);
+
+    @Test
+    void loginVerifiedBeforeTheCommitIsDroppedWhenItCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateAfterCommit("alice");
+            // A concurrent login still reads the old password until the change commits
+            cache.put("alice", "old-password", ALICE, cache.generation());
+            assertNotNull(cache.get("alice", "old-password"));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertNull(cache.get("alice", "old-password"));
+    }
+
+    @Test
+    void loginInAnotherCaseIsInvalidatedByTheStoredUsername() {
+        cache.put("ALICE", "old-password", ALICE, cache.generation());
+        cache.invalidate("alice");
+        assertNull(cache.get("ALICE", "old-password"));
+    }
+
+    @Test
+    void withoutATransactionTheCacheIsInvalidatedAtOnce() {
+        cache.put("alice", "old-password", ALICE, cache.generation());
+        cache.invalidateAfterCommit("alice");
+        assertNull(cache.get("alice", "old-password"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.security;
+
+import com.example.demo.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs on an H2 database of its own that compares strings ignoring case, as MySQL's default
+ * collation does, so a username matches however it is typed. Each test works on a user of its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + CaseInsensitiveUsernameTest.URL)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CaseInsensitiveUsernameTest {
+
+    static final String URL = "jdbc:h2:mem:case-insensitive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String PASSWORD = "case-password";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void tokenNamesTheStoredUsernameWhateverCaseWasTyped() throws Exception {
+        register("Alice");
+
+        String token = login("ALICE");
+
+        assertEquals("Alice", jwtUtil.getUsernameFromToken(token));
+    }
+
+    @Test
+    void passwordChangeEndsBasicLoginsMadeInAnyCase() throws Exception {
+        long userId = register("Bob");
+        mockMvc.perform(get("/categories").with(httpBasic("BOB", PASSWORD))).andExpect(status().isOk());
+
+        mockMvc.perform(put("/users/password/" + userId)
+                        .with(httpBasic("Bob", PASSWORD))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"currentPassword\":\"" + PASSWORD + "\",\"newPassword\":\"changed-password\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/categories").with(httpBasic("BOB", PASSWORD))).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/categories").with(httpBasic("BOB", "changed-password"))).andExpect(status().isOk());
+    }
+
+    private long register(String username) throws Exception {
+        String body = mockMvc.perform(post("/users/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\""
+                                + PASSWORD + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("userId").asLong();
+    }
+
+    private String login(String username) throws Exception {
+        String body = mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.service;
+
+import com.example.demo.support.QueryBudget;
+import com.example.demo.support.QueryBudgetConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that categories written by another node (inserted here behind the registry's back) are
+ * accepted before the next periodic refresh, and that unknown ids stay unknown. Runs on an H2
+ * database of its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + CategoryRegistryTest.URL)
+@ActiveProfiles("test")
+@Import(QueryBudgetConfiguration.class)
+class CategoryRegistryTest {
+
+    static final String URL = "jdbc:h2:mem:category-registry;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CategoryRegistry categoryRegistry;
+
+    @Autowired
+    private QueryBudget queryBudget;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void categoryCreatedElsewhereIsFoundBeforeTheNextRefresh() {
+        categoryRegistry.getAll();
+        jdbcTemplate.update("insert into categories (id, name, color, icon, created_at) values (200, 'Elsewhere', '#123456', 'x', now())");
+
+        assertTrue(categoryRegistry.exists(200L));
+        assertEquals("Elsewhere", categoryRegistry.find(200L).orElseThrow().getName());
+        assertTrue(categoryRegistry.getAll().stream().anyMatch(category -> category.getId() == 200L));
+    }
+
+    @Test
+    void unknownCategoryIsLookedUpWithoutReloading() throws Exception {
+        categoryRegistry.getAll();
+        queryBudget.atMost(1, () -> assertFalse(categoryRegistry.exists(999_999L)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks how saveTask reports rows the database rejects: a missing user is a 400 like before the
+ * foreign keys took over the lookups, while other integrity violations are not mistaken for one.
+ * Runs on an H2 database of its own.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + TaskServiceTest.URL)
+@ActiveProfiles("test")
+class TaskServiceTest {
+
+    static final String URL = "jdbc:h2:mem:task-service;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void missingUserIsReportedAsUserNotFound() {
+        Long category = categoryService.createCategory("Orphaned", "#000000", "x").getId();
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> taskService.saveTask(task("Orphan", 999_999L, category)));
+        assertEquals("User not found", e.getMessage());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreRethrown() {
+        User user = userRepository.save(new User.Builder()
+                .username("task-too-long")
+                .email("task-too-long@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+        Long category = categoryService.createCategory("Too long", "#000000", "x").getId();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> taskService.saveTask(task("x".repeat(300), user.getId(), category)));
+    }
+
+    private static Task task(String title, Long userId, Long categoryId) {
+        return new Task.Builder()
+                .title(title)
+                .user(new User(userId))
+                .category(new Category(categoryId))
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.enums.TaskStatus;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the per-user counters follow tasks removed with their category or owner, and that
+ * the reconcile repairs counters changed behind the application's back. Each test works on a user
+ * and category of its own, in an H2 database no other test class uses.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + TaskStatisticsServiceTest.URL)
+@ActiveProfiles("test")
+class TaskStatisticsServiceTest {
+
+    static final String URL = "jdbc:h2:mem:task-statistics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskStatisticsService taskStatisticsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletingACategoryDecrementsItsTasksOwners() {
+        User user = user("stats-category");
+        Long doomed = categoryService.createCategory("Doomed", "#000000", "x").getId();
+        Long kept = categoryService.createCategory("Kept", "#ffffff", "y").getId();
+        taskService.saveTask(task(user, doomed, "First"));
+        taskService.saveTask(task(user, doomed, "Second"));
+        taskService.saveTask(task(user, kept, "Third"));
+
+        categoryService.deleteCategory(doomed);
+
+        assertEquals(1, taskStatisticsService.getStats(user.getId()).getTotal());
+        assertEquals(1, count("select count(*) from tasks where user_id = ?", user.getId()));
+        assertEquals(2, count("select count(*) from task_tombstones where user_id = ?", user.getId()));
+    }
+
+    @Test
+    void deletingAUserRemovesItsTasksAndCounters() {
+        User user = user("stats-user");
+        Long category = categoryService.createCategory("Owned", "#000000", "x").getId();
+        taskService.saveTask(task(user, category, "Only"));
+
+        userService.deleteUser(user.getId());
+
+        assertEquals(0, count("select count(*) from tasks where user_id = ?", user.getId()));
+        assertEquals(0, count("select count(*) from task_statistics where user_id = ?", user.getId()));
+    }
+
+    @Test
+    void reconcileRepairsDriftedCounters() {
+        User user = user("stats-drift");
+        Long category = categoryService.createCategory("Drift", "#000000", "x").getId();
+        taskService.saveTask(task(user, category, "Counted"));
+        jdbcTemplate.update("update task_statistics set task_count = 42 where user_id = ?", user.getId());
+        jdbcTemplate.update("insert into task_statistics (user_id, status, priority, task_count) values (?, 'COMPLETED', 'LOW', 7)",
+                user.getId());
+
+        taskStatisticsService.reconcile();
+
+        assertEquals(1, taskStatisticsService.getStats(user.getId()).getTotal());
+        assertEquals(1, taskStatisticsService.getStats(user.getId()).getByStatus().get(TaskStatus.TODO));
+    }
+
+    private User user(String username) {
+        return userRepository.save(new User.Builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static Task task(User user, Long categoryId, String title) {
+        return new Task.Builder()
+                .title(title)
+                .user(new User(user.getId()))
+                .category(new Category(categoryId))
+                .build();
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
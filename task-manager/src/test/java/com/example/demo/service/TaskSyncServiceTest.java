@@ -0,0 +1,124 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TaskChangesDTO;
+import com.example.demo.dto.TaskDTO;
+import com.example.demo.entity.Category;
+import com.example.demo.entity.Task;
+import com.example.demo.entity.User;
+import com.example.demo.exception.SyncTokenExpiredException;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.CursorUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that delta sync reports every change after a token: writes whose updatedAt lies before
+ * the token (as a transaction that committed late would leave), and tasks that left the user's
+ * list with their category or to another owner. Each test works on users of its own, in an H2
+ * database no other test class uses.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + TaskSyncServiceTest.URL)
+@ActiveProfiles("test")
+class TaskSyncServiceTest {
+
+    static final String URL = "jdbc:h2:mem:task-sync;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskSyncService taskSyncService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void changeWithAnEarlierTimestampIsNotSkipped() {
+        User user = user("sync-late");
+        Long category = categoryService.createCategory("Late", "#000000", "x").getId();
+        Task first = taskService.saveTask(task(user, category, "First"));
+        TaskChangesDTO full = taskSyncService.getChanges(user.getId(), null, 100);
+        assertEquals(List.of(first.getId()), ids(full.getChanged()));
+
+        Task late = taskService.saveTask(task(user, category, "Late"));
+        jdbcTemplate.update("update tasks set updated_at = ? where id = ?", LocalDateTime.of(2000, 1, 1, 0, 0), late.getId());
+
+        TaskChangesDTO delta = taskSyncService.getChanges(user.getId(), full.getNext(), 100);
+        assertEquals(List.of(late.getId()), ids(delta.getChanged()));
+        assertEquals(List.of(), ids(taskSyncService.getChanges(user.getId(), delta.getNext(), 100).getChanged()));
+    }
+
+    @Test
+    void tasksRemovedWithTheirCategoryAreReportedDeleted() {
+        User user = user("sync-category");
+        Long category = categoryService.createCategory("Synced", "#000000", "x").getId();
+        Task first = taskService.saveTask(task(user, category, "First"));
+        Task second = taskService.saveTask(task(user, category, "Second"));
+        String token = taskSyncService.getChanges(user.getId(), null, 100).getNext();
+
+        categoryService.deleteCategory(category);
+
+        TaskChangesDTO delta = taskSyncService.getChanges(user.getId(), token, 100);
+        assertEquals(List.of(first.getId(), second.getId()), delta.getDeleted());
+        assertEquals(List.of(), delta.getChanged());
+    }
+
+    @Test
+    void taskMovedToAnotherOwnerIsDeletedForThePreviousOne() {
+        User from = user("sync-from");
+        User to = user("sync-to");
+        Long category = categoryService.createCategory("Moving", "#000000", "x").getId();
+        Task task = taskService.saveTask(task(from, category, "Moving"));
+        String fromToken = taskSyncService.getChanges(from.getId(), null, 100).getNext();
+        String toToken = taskSyncService.getChanges(to.getId(), null, 100).getNext();
+
+        task.setUser(new User(to.getId()));
+        taskService.saveTask(task);
+
+        assertEquals(List.of(task.getId()), taskSyncService.getChanges(from.getId(), fromToken, 100).getDeleted());
+        assertEquals(List.of(task.getId()), ids(taskSyncService.getChanges(to.getId(), toToken, 100).getChanged()));
+    }
+
+    @Test
+    void tokenFromBeforeVersionedSyncMustResync() {
+        String legacy = CursorUtil.encodeAll(System.currentTimeMillis(), 0L, 0L, 0L);
+        assertThrows(SyncTokenExpiredException.class, () -> taskSyncService.getChanges(1L, legacy, 100));
+        assertThrows(IllegalArgumentException.class, () -> taskSyncService.getChanges(1L, "not-a-token", 100));
+    }
+
+    private User user(String username) {
+        return userRepository.save(new User.Builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static Task task(User user, Long categoryId, String title) {
+        return new Task.Builder()
+                .title(title)
+                .user(new User(user.getId()))
+                .category(new Category(categoryId))
+                .build();
+    }
+
+    private static List<Long> ids(List<TaskDTO> tasks) {
+        return tasks.stream().map(TaskDTO::getId).toList();
+    }
+}
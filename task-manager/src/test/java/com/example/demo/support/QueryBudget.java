@@ -0,0 +1,42 @@
+package com.example.demo.support;
+
+import java.util.List;
+
+/**
+ * Asserts how many SQL statements a block of test code may cause, e.g.
+ * {@code queryBudget.atMost(2, () -> mockMvc.perform(get("/tasks/1")))}. A block over budget
+ * fails with every statement it ran, which usually makes an N+1 obvious at a glance.
+ */
+public class QueryBudget {
+
+    private final SqlStatementRecorder recorder;
+
+    public QueryBudget(SqlStatementRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public List<String> atMost(int maxStatements, Action action) throws Exception {
+        recorder.start();
+        List<String> statements;
+        try {
+            action.run();
+        } finally {
+            statements = recorder.stop();
+        }
+        if (statements.size() > maxStatements) {
+            StringBuilder message = new StringBuilder()
+                    .append("Query budget exceeded: expected at most ").append(maxStatements)
+                    .append(" SQL statements but ").append(statements.size()).append(" were executed:");
+            for (int i = 0; i < statements.size(); i++) {
+                message.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(statements.get(i));
+            }
+            throw new AssertionError(message.toString());
+        }
+        return statements;
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.support;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+// Puts a SqlStatementRecorder in front of the application's statement inspector
+@TestConfiguration
+public class QueryBudgetConfiguration {
+
+    @Bean
+    public SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+
+    @Bean
+    public QueryBudget queryBudget(SqlStatementRecorder sqlStatementRecorder) {
+        return new QueryBudget(sqlStatementRecorder);
+    }
+
+    // Runs after the application's customizers so it can wrap the inspector they registered
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public HibernatePropertiesCustomizer sqlStatementRecorderCustomizer(SqlStatementRecorder sqlStatementRecorder) {
+        return properties -> {
+            if (properties.get(AvailableSettings.STATEMENT_INSPECTOR) instanceof StatementInspector existing) {
+                sqlStatementRecorder.setDelegate(existing);
+            }
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementRecorder);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.support;
+
+import com.example.demo.loadtest.DatasetGenerator;
+import com.example.demo.loadtest.DatasetSize;
+import com.example.demo.loadtest.LoadHarness;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+/**
+ * Base class for endpoint query budget tests. All subclasses share one application context and
+ * one seeded H2 dataset; tests that write use rows no other test reads. Requests are
+ * authenticated with a mock principal, so the budgets cover the endpoint's own queries only.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryBudgetConfiguration.class)
+public abstract class QueryBudgetTest {
+
+    // Four users own ten tasks each; every task has one comment; every fifth task has no category
+    protected static final DatasetSize DATASET = new DatasetSize(4, 3, 40, 40);
+
+    private static boolean seeded;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected QueryBudget queryBudget;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    void seedOnce() {
+        synchronized (QueryBudgetTest.class) {
+            if (!seeded) {
+                new DatasetGenerator(jdbcTemplate).generate(DATASET);
+                LoadHarness.refreshDerivedState(applicationContext);
+                seeded = true;
+            }
+        }
+    }
+
+    protected static RequestPostProcessor asUser(long userId) {
+        return user(DatasetGenerator.username(userId)).roles("USER");
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statement inspector that keeps the text of every SQL statement Hibernate prepares while
+ * recording is on, from any thread, so work handed to the async executor is counted too.
+ * Statements are passed on to the inspector the application configured.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private final List<String> statements = new ArrayList<>();
+    private StatementInspector delegate;
+    private boolean recording;
+
+    void setDelegate(StatementInspector delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String inspected = delegate != null ? delegate.inspect(sql) : sql;
+        synchronized (statements) {
+            if (recording) {
+                statements.add(inspected);
+            }
+        }
+        return inspected;
+    }
+
+    public void start() {
+        synchronized (statements) {
+            statements.clear();
+            recording = true;
+        }
+    }
+
+    public List<String> stop() {
+        synchronized (statements) {
+            recording = false;
+            return List.copyOf(statements);
+        }
+    }
+}